@@ -0,0 +1,144 @@
+package org.amv.highmobility.cryptotool;
+
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.amv.highmobility.cryptotool.engine.AccessCertificateBuilder;
+import org.amv.highmobility.cryptotool.engine.DeviceCertificateBuilder;
+import org.amv.highmobility.cryptotool.engine.JcaHmacEngine;
+import org.amv.highmobility.cryptotool.engine.JcaKeysEngine;
+import org.amv.highmobility.cryptotool.engine.JcaSignatureEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Benchmarks every {@link Cryptotool} operation once spawning the binary ({@code binary})
+ * and once with all in-process engines configured ({@code engine}).
+ * Operations without an in-process engine, e.g. {@link CryptotoolImpl#refreshVersion()},
+ * spawn the binary in both cases.
+ */
+@State(Scope.Benchmark)
+public class CryptotoolBenchmark {
+
+    @Param({"binary", "engine"})
+    private String implementation;
+
+    private BinaryExecutorRegistry.SharedBinaryExecutor binaryExecutor;
+    private CryptotoolImpl cryptotool;
+
+    private Cryptotool.Keys keys;
+    private String message;
+    private String signature;
+    private String hmacKey;
+    private String hmac;
+    private String issuer;
+    private String appId;
+    private String providingSerial;
+    private String gainingSerial;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String permissions;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.binaryExecutor = BinaryExecutorRegistry.getDefault().acquire();
+        this.cryptotool = new CryptotoolImpl(createOptions(implementation, binaryExecutor));
+
+        this.keys = cryptotool.generateKeys().block();
+        this.message = SecureRandomUtils.generateRandomHexString(32);
+        this.signature = cryptotool.generateSignature(message, keys.getPrivateKey()).block().getSignature();
+        this.hmacKey = SecureRandomUtils.generateRandomHexString(32);
+        this.hmac = cryptotool.generateHmac(message, hmacKey).block().getHmac();
+        this.issuer = SecureRandomUtils.generateRandomIssuerInHex();
+        this.appId = SecureRandomUtils.generateRandomAppId();
+        this.providingSerial = SecureRandomUtils.generateRandomSerial();
+        this.gainingSerial = SecureRandomUtils.generateRandomSerial();
+        this.startDate = LocalDateTime.now();
+        this.endDate = startDate.plusDays(1);
+        this.permissions = PermissionsImpl.builder()
+                .doorLocksRead(true)
+                .doorLocksWrite(true)
+                .build()
+                .getPermissions();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.binaryExecutor.close();
+    }
+
+    /**
+     * Uses {@link CryptotoolImpl#refreshVersion()} as {@link Cryptotool#version()} returns a cached result.
+     */
+    @Benchmark
+    public Cryptotool.Version version() {
+        return cryptotool.refreshVersion().block();
+    }
+
+    @Benchmark
+    public Cryptotool.Keys generateKeys() {
+        return cryptotool.generateKeys().block();
+    }
+
+    @Benchmark
+    public Cryptotool.Signature generateSignature() {
+        return cryptotool.generateSignature(message, keys.getPrivateKey()).block();
+    }
+
+    @Benchmark
+    public Cryptotool.Validity verifySignature() {
+        return cryptotool.verifySignature(message, signature, keys.getPublicKey()).block();
+    }
+
+    @Benchmark
+    public Cryptotool.Hmac generateHmac() {
+        return cryptotool.generateHmac(message, hmacKey).block();
+    }
+
+    @Benchmark
+    public Cryptotool.Validity verifyHmac() {
+        return cryptotool.verifyHmac(message, hmacKey, hmac).block();
+    }
+
+    @Benchmark
+    public Cryptotool.DeviceCertificate createDeviceCertificate() {
+        return cryptotool.createDeviceCertificate(issuer, appId, gainingSerial, keys.getPublicKey()).block();
+    }
+
+    @Benchmark
+    public Cryptotool.AccessCertificate createAccessCertificateV0() {
+        return cryptotool.createAccessCertificate(0, null, providingSerial, gainingSerial,
+                keys.getPublicKey(), startDate, endDate, permissions).block();
+    }
+
+    @Benchmark
+    public Cryptotool.AccessCertificate createAccessCertificateV1() {
+        return cryptotool.createAccessCertificate(1, issuer, providingSerial, gainingSerial,
+                keys.getPublicKey(), startDate, endDate, permissions).block();
+    }
+
+    private static CryptotoolOptions createOptions(String implementation, BinaryExecutor binaryExecutor) {
+        CryptotoolOptionsImpl.Builder builder = CryptotoolOptionsImpl.builder()
+                .binaryExecutor(binaryExecutor);
+
+        switch (implementation) {
+            case "binary":
+                return builder.build();
+            case "engine":
+                return builder
+                        .keysEngine(new JcaKeysEngine())
+                        .signatureEngine(new JcaSignatureEngine())
+                        .hmacEngine(new JcaHmacEngine())
+                        .deviceCertificateEngine(new DeviceCertificateBuilder())
+                        .accessCertificateEngine(new AccessCertificateBuilder())
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+}
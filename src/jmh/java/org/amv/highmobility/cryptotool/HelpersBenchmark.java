@@ -0,0 +1,68 @@
+package org.amv.highmobility.cryptotool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks helpers invoked for every command. Run with the gc profiler to see allocation rates:
+ * {@code ./gradlew jmh -PjmhInclude=HelpersBenchmark -PjmhProfilers=gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HelpersBenchmark {
+
+    private PermissionsImpl permissions;
+    private LocalDateTime dateTime;
+    private ProcessResultImpl processResult;
+
+    @Setup
+    public void setUp() {
+        this.permissions = PermissionsImpl.builder()
+                .capabilitiesRead(true)
+                .vehicleStatusRead(true)
+                .doorLocksRead(true)
+                .doorLocksWrite(true)
+                .chargeRead(true)
+                .keyfobPositionRead(true)
+                .build();
+        this.dateTime = LocalDateTime.now();
+
+        List<String> output = new ArrayList<>(Arrays.asList("PRIVATE: 0A1B", "", "PUBLIC: 2C3D", "\n"));
+        this.processResult = ProcessResultImpl.builder()
+                .output(output)
+                .errors(Arrays.asList("", "debug: done"))
+                .build();
+    }
+
+    @Benchmark
+    public String permissionsGetPermissions() {
+        return permissions.getPermissions();
+    }
+
+    @Benchmark
+    public String cryptotoolUtilsEncodeAsHex() {
+        return CryptotoolUtils.encodeAsHex(dateTime);
+    }
+
+    @Benchmark
+    public List<String> processResultGetStdoutLines() {
+        return processResult.getStdoutLines();
+    }
+
+    @Benchmark
+    public boolean processResultHasErrors() {
+        return processResult.hasErrors();
+    }
+}
@@ -0,0 +1,50 @@
+package org.amv.highmobility.cryptotool;
+
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.Getter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Options for operations processing a stream of requests, e.g.
+ * {@link Cryptotool#generateSignatures(org.reactivestreams.Publisher, BatchOptions)}.
+ */
+@Getter
+@Builder(builderClassName = "Builder")
+public class BatchOptions {
+
+    public static BatchOptions createDefault() {
+        return BatchOptions.builder().build();
+    }
+
+    /**
+     * The maximum number of requests (or chunks of requests) processed concurrently.
+     * Upstream requests are only demanded as fast as they are processed.
+     */
+    @Default
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Whether results are emitted in the order of their requests.
+     * If {@code false}, results are emitted as soon as they are available.
+     */
+    @Default
+    private boolean ordered = true;
+
+    /**
+     * The number of requests handed to an in-process engine at once. Processing requests in chunks
+     * amortizes scheduling costs across many cheap in-process operations.
+     */
+    @Default
+    private int chunkSize = 64;
+
+    BatchOptions(int parallelism, boolean ordered, int chunkSize) {
+        checkArgument(parallelism > 0, "`parallelism` must be positive");
+        checkArgument(chunkSize > 0, "`chunkSize` must be positive");
+
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+    }
+}
@@ -1,68 +1,237 @@
 package org.amv.highmobility.cryptotool;
 
 
-import com.google.common.io.Files;
+import com.google.common.hash.Hashing;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.SystemUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
 
+/**
+ * Provides the binaries bundled with this library.
+ * <p>
+ * Binaries are extracted once into a cache directory shared by all JVMs of a user and are
+ * addressed by the SHA-256 hash of their content: {@code <cache-dir>/<sha256>/crypto-tool}.
+ * The cache directory defaults to {@code <java.io.tmpdir>/amv-cryptotool-<user.name>} and can be changed
+ * with the system property {@value #CACHE_DIRECTORY_PROPERTY}. Extraction is guarded by a file lock and
+ * the binary is moved into place atomically, so concurrent processes never see a partial file.
+ * <p>
+ * An existing binary is only reused if its SHA-256 hash matches the bundled one. On POSIX file systems
+ * directories are created accessible by the owner only, and existing directories are refused if they
+ * are owned by another user or writable by group or others - so no other local user can plant a binary.
+ */
 @Slf4j
 public final class Binaries {
+    public static final String CACHE_DIRECTORY_PROPERTY = "cryptotool.binary.cache.dir";
+    private static final String DEFAULT_CACHE_DIRECTORY_NAME = "amv-cryptotool";
+
     private static final String PATH_TO_BINARY_IN_JAR_WINDOWS = "/cryptotool/bin/crypto-tool.exe";
     private static final String PATH_TO_BINARY_IN_JAR_UNIX = "/cryptotool/bin/crypto-tool-deb64";
     private static final String PATH_TO_BINARY_IN_JAR_UNIX_REDHAT = "/cryptotool/bin/crypto-tool-fedora";
 
     private static final String TARGET_BINARY_NAME = "crypto-tool";
 
+    private static final Set<PosixFilePermission> OWNER_ONLY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> GROUP_OR_OTHERS_WRITE_PERMISSIONS = EnumSet.of(
+            PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE);
+
+    private static final Map<String, JarUtil.ResourceInfo> resourceInfos = new ConcurrentHashMap<>();
+
+    /**
+     * The platform variants of the bundled binary.
+     */
+    public enum Platform {
+        DEB64(PATH_TO_BINARY_IN_JAR_UNIX),
+        FEDORA(PATH_TO_BINARY_IN_JAR_UNIX_REDHAT),
+        WINDOWS(PATH_TO_BINARY_IN_JAR_WINDOWS);
+
+        private final String pathToBinaryInJar;
+
+        Platform(String pathToBinaryInJar) {
+            this.pathToBinaryInJar = pathToBinaryInJar;
+        }
+    }
+
     private Binaries() {
         throw new UnsupportedOperationException();
     }
 
     public static Binary defaultBinary() throws IOException {
-        return BinaryImpl.builder()
-                .file(copyBinaryFromJarToDisk(findPathToDefaultBinaryInJar()))
-                .build();
+        return binary(defaultPlatform());
     }
 
     public static Binary windowsBinary() throws IOException {
-        return BinaryImpl.builder()
-                .file(copyBinaryFromJarToDisk(PATH_TO_BINARY_IN_JAR_WINDOWS))
-                .build();
+        return binary(Platform.WINDOWS);
     }
 
     public static Binary unixBinary() throws IOException {
-        return BinaryImpl.builder()
-                .file(copyBinaryFromJarToDisk(PATH_TO_BINARY_IN_JAR_UNIX))
-                .build();
+        return binary(Platform.DEB64);
     }
 
     public static Binary redhatBinary() throws IOException {
+        return binary(Platform.FEDORA);
+    }
+
+    public static Binary binary(Platform platform) throws IOException {
+        requireNonNull(platform, "`platform` must not be null");
+
         return BinaryImpl.builder()
-                .file(copyBinaryFromJarToDisk(PATH_TO_BINARY_IN_JAR_UNIX_REDHAT))
+                .file(copyBinaryFromJarToDisk(platform.pathToBinaryInJar))
                 .build();
     }
 
     private static File copyBinaryFromJarToDisk(String pathToBinaryInJar) throws IOException {
-        File tempDir = Files.createTempDir();
-        tempDir.deleteOnExit();
+        return copyBinaryFromJarToDisk(pathToBinaryInJar, cacheDirectory());
+    }
+
+    static File copyBinaryFromJarToDisk(String pathToBinaryInJar, File cacheDirectory) throws IOException {
+        JarUtil.ResourceInfo resourceInfo = resourceInfo(pathToBinaryInJar);
+
+        File binaryDirectory = new File(cacheDirectory, resourceInfo.getSha256().toString());
+        File file = new File(binaryDirectory, TARGET_BINARY_NAME);
+
+        // file locks are held on behalf of the whole jvm - threads are serialized via the monitor
+        synchronized (Binaries.class) {
+            createSecureDirectory(cacheDirectory);
+            createSecureDirectory(binaryDirectory);
+
+            if (isExtracted(file, resourceInfo)) {
+                return makeFileExecutableOrThrow(file);
+            }
+
+            File lockFile = new File(cacheDirectory, resourceInfo.getSha256() + ".lock");
+            try (FileChannel channel = new RandomAccessFile(lockFile, "rw").getChannel()) {
+                FileLock lock = channel.lock();
+                try {
+                    if (!isExtracted(file, resourceInfo)) {
+                        extract(pathToBinaryInJar, binaryDirectory, file);
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+
+        return makeFileExecutableOrThrow(file);
+    }
 
-        File file = JarUtil.extractFileFromJarToDisk(pathToBinaryInJar,
-                tempDir.getAbsolutePath(),
-                TARGET_BINARY_NAME);
-        File executableFile = makeFileExecutableOrThrow(file);
+    /**
+     * Creates the directory accessible by the owner only or verifies that an existing directory
+     * cannot be written by other users. Only POSIX file systems are checked.
+     */
+    private static void createSecureDirectory(File directory) throws IOException {
+        Path path = directory.toPath();
+        boolean isPosix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            if (isPosix) {
+                Files.createDirectories(path, PosixFilePermissions.asFileAttribute(OWNER_ONLY_PERMISSIONS));
+            } else {
+                Files.createDirectories(path);
+            }
+        }
+
+        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IllegalStateException("Binary cache directory is not a directory: " + directory);
+        }
+        if (!isPosix) {
+            return;
+        }
+
+        UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal currentUser = FileSystems.getDefault().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(currentUser)) {
+            throw new IllegalStateException("Binary cache directory " + directory
+                    + " is owned by another user: " + owner.getName());
+        }
+
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+        if (permissions.stream().anyMatch(GROUP_OR_OTHERS_WRITE_PERMISSIONS::contains)) {
+            throw new IllegalStateException("Binary cache directory " + directory
+                    + " is writable by other users: " + PosixFilePermissions.toString(permissions));
+        }
+    }
+
+    private static void extract(String pathToBinaryInJar, File binaryDirectory, File file) throws IOException {
+        File tempFile = File.createTempFile(TARGET_BINARY_NAME, ".tmp", binaryDirectory);
+        try {
+            JarUtil.extractFileFromJarToDisk(pathToBinaryInJar,
+                    binaryDirectory.getAbsolutePath(),
+                    tempFile.getName());
+            makeFileExecutableOrThrow(tempFile);
+
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
 
         if (log.isDebugEnabled()) {
             log.debug("Copied {} to {}", TARGET_BINARY_NAME, file.getAbsolutePath());
         }
+    }
+
+    private static boolean isExtracted(File file, JarUtil.ResourceInfo resourceInfo) throws IOException {
+        if (!file.isFile() || file.length() != resourceInfo.getSize()) {
+            return false;
+        }
+
+        boolean isUnmodified = com.google.common.io.Files.asByteSource(file)
+                .hash(Hashing.sha256())
+                .equals(resourceInfo.getSha256());
+        if (!isUnmodified && log.isWarnEnabled()) {
+            log.warn("Replacing modified binary {}", file.getAbsolutePath());
+        }
+        return isUnmodified;
+    }
 
-        return executableFile;
+    private static JarUtil.ResourceInfo resourceInfo(String pathToBinaryInJar) throws IOException {
+        JarUtil.ResourceInfo resourceInfo = resourceInfos.get(pathToBinaryInJar);
+        if (resourceInfo == null) {
+            resourceInfo = JarUtil.resourceInfo(pathToBinaryInJar);
+            resourceInfos.putIfAbsent(pathToBinaryInJar, resourceInfo);
+        }
+        return resourceInfo;
+    }
+
+    private static File cacheDirectory() {
+        String cacheDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        if (cacheDirectory != null && !cacheDirectory.isEmpty()) {
+            return new File(cacheDirectory);
+        }
+        String userName = System.getProperty("user.name", "").replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(System.getProperty("java.io.tmpdir"), DEFAULT_CACHE_DIRECTORY_NAME + "-" + userName);
     }
 
     private static File makeFileExecutableOrThrow(File file) {
+        if (file.canExecute()) {
+            return file;
+        }
+
         boolean makeExecutable = true;
         boolean ownerOnly = false;
         if (!file.setExecutable(makeExecutable, ownerOnly)) {
@@ -71,16 +240,19 @@ public final class Binaries {
         return file;
     }
 
-    private static String findPathToDefaultBinaryInJar() throws IOException {
+    /**
+     * @return the platform variant of the binary suitable for the current operating system
+     */
+    public static Platform defaultPlatform() {
         boolean isOsSupported = SystemUtils.IS_OS_WINDOWS || SystemUtils.IS_OS_UNIX;
         checkArgument(isOsSupported, "Unsupported operating system");
 
         if (SystemHelper.isWindows()) {
-            return PATH_TO_BINARY_IN_JAR_WINDOWS;
+            return Platform.WINDOWS;
         } else if (SystemHelper.isRedhat()) {
-            return PATH_TO_BINARY_IN_JAR_UNIX_REDHAT;
+            return Platform.FEDORA;
         } else if (SystemHelper.isLinux()) {
-            return PATH_TO_BINARY_IN_JAR_UNIX;
+            return Platform.DEB64;
         }
 
         throw new IllegalStateException("Non compatible operating system for " + TARGET_BINARY_NAME);
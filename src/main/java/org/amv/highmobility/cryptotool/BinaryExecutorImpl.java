@@ -4,26 +4,45 @@ import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Files;
-import lombok.Builder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.*;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 
 @Slf4j
-@Builder(builderClassName = "Builder")
-public class BinaryExecutorImpl implements BinaryExecutor {
+public class BinaryExecutorImpl implements BinaryExecutor, AutoCloseable {
+    private static final String DRAIN_THREAD_NAME_FORMAT = "cryptotool-drain-%d";
+    private static final String PROCESS_THREAD_NAME_FORMAT = "cryptotool-process-%d";
+    private static final long THREAD_KEEP_ALIVE_IN_SECONDS = 60L;
+    private static final int DEFAULT_MAX_QUEUED_PROCESSES = 256;
+    private static final Duration DEFAULT_KILL_GRACE_PERIOD = Duration.ofMillis(500L);
 
+    /**
+     * Extracts the binary and creates a new working directory on every call. The working directory
+     * is never deleted.
+     *
+     * @deprecated use an executor shared via {@link BinaryExecutorRegistry#getDefault()} instead
+     */
+    @Deprecated
     public static BinaryExecutorImpl createDefault() {
         try {
             final Binary binary = Binaries.defaultBinary();
@@ -37,53 +56,245 @@ public class BinaryExecutorImpl implements BinaryExecutor {
         }
     }
 
+    /**
+     * Creates a bounded executor suitable for draining stderr of spawned processes.
+     * One task is submitted per process (stdout is read by the thread waiting for the process),
+     * so {@code maxThreads} should be at least the number of processes expected to run concurrently.
+     * Idle threads are released after a minute.
+     *
+     * @param maxThreads the maximum number of drain threads
+     * @return a new executor with daemon threads
+     */
+    public static ExecutorService createDrainExecutor(int maxThreads) {
+        checkArgument(maxThreads > 0, "`maxThreads` must be positive");
+
+        return createBoundedExecutor(DRAIN_THREAD_NAME_FORMAT, maxThreads, new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * Creates a bounded executor suitable for spawning and waiting for processes.
+     * At most {@code maxConcurrentProcesses} processes run at the same time and at most
+     * {@code maxQueuedProcesses} executions wait for a free thread - further executions are
+     * rejected with a {@link RejectedExecutionException}.
+     *
+     * @param maxConcurrentProcesses the maximum number of processes running at the same time
+     * @param maxQueuedProcesses     the maximum number of executions waiting for a free thread
+     * @return a new executor with daemon threads
+     */
+    public static ExecutorService createProcessExecutor(int maxConcurrentProcesses, int maxQueuedProcesses) {
+        checkArgument(maxConcurrentProcesses > 0, "`maxConcurrentProcesses` must be positive");
+        checkArgument(maxQueuedProcesses > 0, "`maxQueuedProcesses` must be positive");
+
+        return createBoundedExecutor(PROCESS_THREAD_NAME_FORMAT, maxConcurrentProcesses,
+                new ArrayBlockingQueue<>(maxQueuedProcesses));
+    }
+
+    private static ThreadPoolExecutor createBoundedExecutor(String threadNameFormat,
+                                                            int maxThreads,
+                                                            BlockingQueue<Runnable> queue) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                THREAD_KEEP_ALIVE_IN_SECONDS, TimeUnit.SECONDS,
+                queue,
+                new ThreadFactoryBuilder()
+                        .setNameFormat(threadNameFormat)
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static int defaultDrainThreadCount() {
+        return Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    private static int defaultMaxConcurrentProcesses() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
     private final Binary binary;
     private final File workingDirectory;
+    private final ExecutorService drainExecutor;
+    private final boolean drainExecutorOwned;
+    private final Duration killGracePeriod;
+    private final AtomicLong killedProcessCount = new AtomicLong();
+    private final ExecutorService processExecutor;
+    private final Scheduler processScheduler;
+    private final boolean processSchedulerOwned;
+    private final CryptotoolMetrics metrics;
 
     public BinaryExecutorImpl(Binary binary, File workingDirectory) throws IllegalArgumentException {
+        this(binary, workingDirectory, null, null, null, null, null, null);
+    }
+
+    /**
+     * @param binary           the binary to execute
+     * @param workingDirectory the working directory of spawned processes
+     * @param drainExecutor    the executor used to read the output streams of spawned processes;
+     *                         if {@code null} an executor owned by this instance is created
+     *                         and shut down on {@link #close()}
+     * @param killGracePeriod  the time a process has to terminate after a cancelled execution
+     *                         before it is killed forcibly; defaults to 500 milliseconds
+     * @param processScheduler the scheduler used to spawn and wait for processes;
+     *                         if {@code null} a bounded scheduler owned by this instance is created
+     *                         and disposed on {@link #close()}
+     * @param maxConcurrentProcesses the maximum number of processes running at the same time
+     *                               when using the owned scheduler; defaults to the number of processors
+     * @param maxQueuedProcesses     the maximum number of executions waiting for a free process slot
+     *                               when using the owned scheduler; defaults to 256
+     * @param metrics                the callback recording latencies and outcomes of each process;
+     *                               defaults to {@link CryptotoolMetrics#NOOP}
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    public BinaryExecutorImpl(Binary binary,
+                              File workingDirectory,
+                              ExecutorService drainExecutor,
+                              Duration killGracePeriod,
+                              Scheduler processScheduler,
+                              Integer maxConcurrentProcesses,
+                              Integer maxQueuedProcesses,
+                              CryptotoolMetrics metrics) throws IllegalArgumentException {
         requireNonNull(binary, "`binary` must not be null");
         requireNonNull(workingDirectory, "`workingDirectory` must not be null");
         checkArgument(workingDirectory.exists(), "`workingDirectory` does not exist");
+        checkArgument(killGracePeriod == null || !killGracePeriod.isNegative(),
+                "`killGracePeriod` must not be negative");
 
         this.binary = binary;
         this.workingDirectory = workingDirectory;
+        this.drainExecutorOwned = drainExecutor == null;
+        this.drainExecutor = drainExecutorOwned ? createDrainExecutor(defaultDrainThreadCount()) : drainExecutor;
+        this.killGracePeriod = killGracePeriod != null ? killGracePeriod : DEFAULT_KILL_GRACE_PERIOD;
+        this.metrics = metrics != null ? metrics : CryptotoolMetrics.NOOP;
+
+        this.processSchedulerOwned = processScheduler == null;
+        if (processSchedulerOwned) {
+            this.processExecutor = createProcessExecutor(
+                    maxConcurrentProcesses != null ? maxConcurrentProcesses : defaultMaxConcurrentProcesses(),
+                    maxQueuedProcesses != null ? maxQueuedProcesses : DEFAULT_MAX_QUEUED_PROCESSES);
+            this.processScheduler = Schedulers.fromExecutorService(processExecutor);
+        } else {
+            this.processExecutor = null;
+            this.processScheduler = processScheduler;
+        }
+    }
+
+    /**
+     * @return the number of processes destroyed because their execution has been cancelled, e.g. on timeout,
+     * or failed, e.g. when interrupted on {@link #close()}
+     */
+    public long getKilledProcessCount() {
+        return killedProcessCount.get();
+    }
+
+    /**
+     * Provides a snapshot of how busy the drain executor is.
+     *
+     * @return the current stats or empty if the drain executor does not expose any
+     */
+    public Optional<ExecutorStats> getDrainExecutorStats() {
+        return ExecutorStats.of(drainExecutor);
+    }
+
+    /**
+     * Provides a snapshot of how many processes are running and waiting.
+     *
+     * @return the current stats or empty if a custom process scheduler is used
+     */
+    public Optional<ExecutorStats> getProcessExecutorStats() {
+        return ExecutorStats.of(processExecutor);
+    }
+
+    /**
+     * Shuts down the drain executor and the process scheduler if they are owned by this instance.
+     * Executors and schedulers passed in via the builder are left untouched.
+     */
+    @Override
+    public void close() {
+        if (processSchedulerOwned) {
+            processScheduler.dispose();
+        }
+        if (drainExecutorOwned) {
+            drainExecutor.shutdown();
+        }
     }
 
     @Override
     public Flux<ProcessResult> execute(List<String> args) {
         requireNonNull(args);
 
+        return createProcessWrapper(args)
+                .execute()
+                .doOnNext(this::warnOnStderrOutput);
+    }
+
+    private ProcessWrapper createProcessWrapper(List<String> args) {
         ImmutableList<String> commands = ImmutableList.<String>builder()
                 .add(this.binary.getFile().getAbsolutePath())
                 .addAll(args)
                 .build();
 
-        ProcessWrapper processWrapper = new ProcessWrapper(
+        return new ProcessWrapper(
                 this.workingDirectory,
                 commands,
-                Collections.emptyMap());
+                Collections.emptyMap(),
+                this.drainExecutor,
+                this.processScheduler,
+                this.killGracePeriod,
+                this.killedProcessCount::incrementAndGet,
+                this.metrics,
+                CryptotoolMetrics.commandName(args));
+    }
 
-        return processWrapper.execute()
-                .doOnNext(processResult -> {
-                    if (processResult.hasErrors() && log.isWarnEnabled()) {
-                        log.warn("Found output on stderr: \n{}", processResult.getStderrLines());
-                    }
-                });
+    private void warnOnStderrOutput(ProcessResult processResult) {
+        if (processResult.hasErrors() && log.isWarnEnabled()) {
+            log.warn("Found output on stderr: \n{}", processResult.getStderrLines());
+        }
     }
 
     /**
      * A wrapper for the {@link ProcessBuilder} that reads all relevant streams which can cause a 'hanging'
      * {@link Process}. The read data of the streams is provided as strings.
+     * <p>
+     * Both streams are drained while the process is running: stderr on the drain executor and stdout
+     * on the calling thread. Waiting for the exit code only starts after stdout reached EOF, so a process
+     * writing more than the pipe buffer can hold does not block.
+     * <p>
+     * Cancelling the execution (e.g. on timeout) or failing it (e.g. when interrupted on close) destroys
+     * the process: it is asked to terminate first and killed forcibly if it is still alive after the
+     * grace period. Destroying the process closes
+     * its pipes, which lets the pending drain tasks finish.
+     * <p>
+     * Spawning and waiting is done on the given scheduler, never on the subscribing thread.
      */
     private static class ProcessWrapper {
         private final File directory;
         private final List<String> commands;
         private final Map<String, String> environment;
+        private final ExecutorService drainExecutor;
+        private final Scheduler scheduler;
+        private final Duration killGracePeriod;
+        private final Runnable onProcessKilled;
+        private final CryptotoolMetrics metrics;
+        private final String commandName;
 
-        ProcessWrapper(File directory, List<String> commands, Map<String, String> environment) {
+        ProcessWrapper(File directory,
+                       List<String> commands,
+                       Map<String, String> environment,
+                       ExecutorService drainExecutor,
+                       Scheduler scheduler,
+                       Duration killGracePeriod,
+                       Runnable onProcessKilled,
+                       CryptotoolMetrics metrics,
+                       String commandName) {
             this.directory = directory;
             this.commands = ImmutableList.copyOf(requireNonNull(commands));
             this.environment = ImmutableMap.copyOf(requireNonNull(environment));
+            this.drainExecutor = requireNonNull(drainExecutor);
+            this.scheduler = requireNonNull(scheduler);
+            this.killGracePeriod = requireNonNull(killGracePeriod);
+            this.onProcessKilled = requireNonNull(onProcessKilled);
+            this.metrics = requireNonNull(metrics);
+            this.commandName = requireNonNull(commandName);
         }
 
         public Flux<ProcessResult> execute() {
@@ -95,61 +306,237 @@ public class BinaryExecutorImpl implements BinaryExecutor {
             if (environment != null && !environment.isEmpty()) {
                 pb.environment().putAll(environment);
             }
-            return Mono.fromCallable(() -> {
-                if (log.isDebugEnabled()) {
-                    log.debug("Executed: {}", commands.stream().collect(joining(" ")));
-                }
-                return pb.start();
-            }).flatMapMany(this::readProcessOutput);
-        }
 
-        private Mono<ProcessResult> readProcessOutput(Process process) {
-            return Mono.fromCallable(() -> {
-                try {
-                    ExecutorService executor = Executors.newFixedThreadPool(2);
+            return Mono.<ProcessResult>create(sink -> {
+                AtomicReference<ExecutionState> state = new AtomicReference<>(ExecutionState.SCHEDULED);
+                AtomicReference<Process> runningProcess = new AtomicReference<>();
 
-                    int status = process.waitFor();
-                    try (InputStream stdoutStream = process.getInputStream();
-                         InputStream stderrStream = process.getErrorStream()) {
-                        Future<List<String>> stdout = executor.submit(new StreamBoozer(stdoutStream));
-                        Future<List<String>> stderr = executor.submit(new StreamBoozer(stderrStream));
+                Runnable task = () -> {
+                    if (!state.compareAndSet(ExecutionState.SCHEDULED, ExecutionState.RUNNING)) {
+                        return;
+                    }
+                    Object event = JfrEvents.beginProcessExecution();
+                    Execution execution = new Execution();
+                    ProcessResult processResult;
+                    try {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Executed: {}", commands.stream().collect(joining(" ")));
+                        }
+                        long spawnStartNanos = System.nanoTime();
+                        Process process = pb.start();
+                        execution.process = process;
+                        execution.spawnTime = elapsedSince(spawnStartNanos);
 
-                        ProcessResultImpl processResult = ProcessResultImpl.builder()
-                                .status(status)
-                                .output(stdout.get())
-                                .errors(stderr.get())
-                                .build();
+                        runningProcess.set(process);
+                        if (state.get() == ExecutionState.CANCELLED && runningProcess.compareAndSet(process, null)) {
+                            kill(process);
+                        }
 
-                        executor.shutdown();
+                        processResult = readProcessOutput(process, execution);
+                    } catch (Exception e) {
+                        // e.g. interrupted on close - the process must not outlive its execution
+                        Process process = runningProcess.getAndSet(null);
+                        if (process != null) {
+                            kill(process);
+                        }
+                        if (e instanceof InterruptedException) {
+                            Thread.currentThread().interrupt();
+                        }
 
-                        if (log.isDebugEnabled()) {
-                            log.debug("Command has terminated with status: " + processResult.getStatus());
-                            log.debug("Output:\n" + processResult.getStdoutLines());
-                            log.debug("Error:\n" + processResult.getStderrLines());
+                        boolean cancelled = state.get() == ExecutionState.CANCELLED;
+                        record(execution, event, cancelled);
+                        if (cancelled) {
+                            log.debug("Ignoring error of cancelled command: {}", e.getMessage());
+                        } else {
+                            sink.error(e);
                         }
+                        return;
+                    }
+
+                    record(execution, event, state.get() == ExecutionState.CANCELLED);
+                    sink.success(processResult);
+                };
+
+                Disposable scheduledTask;
+                try {
+                    scheduledTask = scheduler.schedule(task);
+                } catch (RejectedExecutionException e) {
+                    sink.error(e);
+                    return;
+                }
+
+                sink.onCancel(() -> {
+                    ExecutionState previousState = state.getAndSet(ExecutionState.CANCELLED);
+                    if (previousState == ExecutionState.SCHEDULED) {
+                        scheduledTask.dispose();
+                    }
 
-                        return processResult;
+                    Process process = runningProcess.getAndSet(null);
+                    if (process != null) {
+                        kill(process);
                     }
-                } catch (InterruptedException | ExecutionException | IOException e) {
-                    throw new RuntimeException(e);
+                });
+            }).flux();
+        }
+
+        private void kill(Process process) {
+            if (!process.isAlive()) {
+                return;
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Destroying process of cancelled or failed command: {}", commands.get(0));
+            }
+
+            onProcessKilled.run();
+            process.destroy();
+
+            Mono.delay(killGracePeriod)
+                    .filter(tick -> process.isAlive())
+                    .subscribe(tick -> {
+                        if (log.isWarnEnabled()) {
+                            log.warn("Process did not terminate within {} - killing it forcibly", killGracePeriod);
+                        }
+                        process.destroyForcibly();
+                    });
+        }
+
+        /**
+         * Reports an execution to the metrics callback and, if enabled, as JFR event.
+         */
+        private void record(Execution execution, Object event, boolean cancelled) {
+            if (execution.spawnTime != null) {
+                metrics.recordSpawnTime(commandName, execution.spawnTime);
+            }
+            if (execution.runTime != null) {
+                metrics.recordRunTime(commandName, execution.runTime);
+            }
+            if (execution.drainTime != null) {
+                metrics.recordDrainTime(commandName, execution.drainTime);
+            }
+            if (execution.status != null) {
+                metrics.recordExitStatus(commandName, execution.status);
+            }
+            if (execution.stderrOutput) {
+                metrics.recordStderrOutput(commandName);
+            }
+
+            JfrEvents.commitProcessExecution(event, commands, execution.process,
+                    execution.status != null ? execution.status : -1,
+                    execution.spawnTime, execution.runTime, execution.drainTime, cancelled);
+        }
+
+        private ProcessResult readProcessOutput(Process process, Execution execution) throws Exception {
+            long runStartNanos = System.nanoTime();
+            Future<List<String>> stderr = null;
+            try (InputStream stdoutStream = process.getInputStream();
+                 InputStream stderrStream = process.getErrorStream()) {
+                process.getOutputStream().close();
+
+                stderr = drainExecutor.submit(new StreamBoozer(stderrStream));
+                List<String> stdout = new StreamBoozer(stdoutStream).call();
+
+                int status = process.waitFor();
+                execution.runTime = elapsedSince(runStartNanos);
+
+                long drainStartNanos = System.nanoTime();
+                List<String> errors = stderr.get();
+                execution.drainTime = elapsedSince(drainStartNanos);
+
+                ProcessResultImpl processResult = ProcessResultImpl.builder()
+                        .status(status)
+                        .output(stdout)
+                        .errors(errors)
+                        .build();
+
+                execution.status = status;
+                execution.stderrOutput = processResult.hasErrors();
+
+                if (log.isDebugEnabled()) {
+                    log.debug("Command has terminated with status: " + processResult.getStatus());
+                    log.debug("Output:\n" + processResult.getStdoutLines());
+                    log.debug("Error:\n" + processResult.getStderrLines());
                 }
-            });
+
+                return processResult;
+            } finally {
+                cancelIfRunning(stderr);
+            }
+        }
+
+        /**
+         * The values measured while executing a process. Fields are {@code null} if the
+         * execution failed or was cancelled before they could be measured.
+         */
+        private static class Execution {
+            private Process process;
+            private Duration spawnTime;
+            private Duration runTime;
+            private Duration drainTime;
+            private Integer status;
+            private boolean stderrOutput;
+        }
+
+        private enum ExecutionState {
+            SCHEDULED,
+            RUNNING,
+            CANCELLED
+        }
+
+        private static Duration elapsedSince(long startNanos) {
+            return Duration.ofNanos(System.nanoTime() - startNanos);
+        }
+
+        private static void cancelIfRunning(Future<?> future) {
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
         }
 
         private static class StreamBoozer implements Callable<List<String>> {
-            private InputStream in;
+            private final InputStream in;
 
             StreamBoozer(InputStream in) {
                 this.in = requireNonNull(in);
             }
 
             @Override
-            public List<String> call() {
+            public List<String> call() throws IOException {
                 BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(this.in, Charsets.UTF_8));
-                return bufferedReader.lines()
-                        .collect(toList());
+
+                List<String> lines = new ArrayList<>();
+                String line;
+                while ((line = bufferedReader.readLine()) != null) {
+                    lines.add(line);
+                }
+                return lines;
             }
         }
 
     }
+
+    @Getter
+    @lombok.Builder(builderClassName = "Builder")
+    public static class ExecutorStats {
+        private static Optional<ExecutorStats> of(ExecutorService executor) {
+            if (!(executor instanceof ThreadPoolExecutor)) {
+                return Optional.empty();
+            }
+
+            ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executor;
+            return Optional.of(ExecutorStats.builder()
+                    .activeCount(threadPoolExecutor.getActiveCount())
+                    .poolSize(threadPoolExecutor.getPoolSize())
+                    .maximumPoolSize(threadPoolExecutor.getMaximumPoolSize())
+                    .queueSize(threadPoolExecutor.getQueue().size())
+                    .completedTaskCount(threadPoolExecutor.getCompletedTaskCount())
+                    .build());
+        }
+
+        private int activeCount;
+        private int poolSize;
+        private int maximumPoolSize;
+        private int queueSize;
+        private long completedTaskCount;
+    }
 }
@@ -0,0 +1,198 @@
+package org.amv.highmobility.cryptotool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hands out executors shared by all {@link Cryptotool} instances of a process - one per
+ * {@link Binaries.Platform}. Executors are reference counted: each {@link #acquire()} must be
+ * followed by closing the returned executor. When the last reference is closed, the underlying
+ * {@link BinaryExecutorImpl} is closed and its working directory is deleted.
+ * <p>
+ * References that are never closed, e.g. the ones acquired by {@link CryptotoolOptionsImpl#createDefault()},
+ * are released on JVM shutdown: while executors are open, the registry holds a shutdown hook that closes
+ * them and deletes their working directories.
+ * <p>
+ * The binary itself resides in the cache directory of {@link Binaries} and is not deleted.
+ */
+@Slf4j
+public final class BinaryExecutorRegistry {
+    private static final String WORKING_DIRECTORY_PREFIX = "cryptotool-";
+    private static final String SHUTDOWN_HOOK_THREAD_NAME = "cryptotool-registry-shutdown";
+    private static final BinaryExecutorRegistry DEFAULT = new BinaryExecutorRegistry();
+
+    /**
+     * @return the registry shared by the whole process
+     */
+    public static BinaryExecutorRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private final Map<Binaries.Platform, Entry> entries = new EnumMap<>(Binaries.Platform.class);
+    private final Thread shutdownHook = new Thread(this::closeAll, SHUTDOWN_HOOK_THREAD_NAME);
+
+    /**
+     * Acquires the executor for the binary suitable for the current operating system.
+     *
+     * @return a new reference to the shared executor that must be closed after use
+     */
+    public SharedBinaryExecutor acquire() throws IOException {
+        return acquire(Binaries.defaultPlatform());
+    }
+
+    /**
+     * @param platform the platform variant of the binary
+     * @return a new reference to the shared executor that must be closed after use
+     */
+    public synchronized SharedBinaryExecutor acquire(Binaries.Platform platform) throws IOException {
+        requireNonNull(platform, "`platform` must not be null");
+
+        Entry entry = entries.get(platform);
+        if (entry == null) {
+            entry = createEntry(platform);
+            if (entries.isEmpty()) {
+                Runtime.getRuntime().addShutdownHook(shutdownHook);
+            }
+            entries.put(platform, entry);
+        }
+        entry.referenceCount++;
+
+        return new SharedBinaryExecutor(this, platform, entry);
+    }
+
+    /**
+     * @return the number of open references to the executor of the given platform
+     */
+    public synchronized int getReferenceCount(Binaries.Platform platform) {
+        Entry entry = entries.get(platform);
+        return entry != null ? entry.referenceCount : 0;
+    }
+
+    private synchronized void release(Binaries.Platform platform, Entry entry) {
+        if (entries.get(platform) != entry) {
+            return;
+        }
+
+        entry.referenceCount--;
+        if (entry.referenceCount > 0) {
+            return;
+        }
+
+        entries.remove(platform);
+        close(entry);
+
+        if (entries.isEmpty()) {
+            removeShutdownHook();
+        }
+    }
+
+    /**
+     * Closes all executors regardless of their open references. Invoked by the shutdown hook.
+     */
+    synchronized void closeAll() {
+        entries.values().forEach(BinaryExecutorRegistry::close);
+        entries.clear();
+
+        removeShutdownHook();
+    }
+
+    private void removeShutdownHook() {
+        if (Thread.currentThread() == shutdownHook) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the jvm is already shutting down
+        }
+    }
+
+    private static void close(Entry entry) {
+        entry.executor.close();
+
+        try {
+            FileUtils.deleteDirectory(entry.workingDirectory);
+        } catch (IOException e) {
+            log.warn("Could not delete working directory {}: {}", entry.workingDirectory, e.getMessage());
+        }
+    }
+
+    private static Entry createEntry(Binaries.Platform platform) throws IOException {
+        Binary binary = Binaries.binary(platform);
+        File workingDirectory = Files.createTempDirectory(WORKING_DIRECTORY_PREFIX).toFile();
+
+        BinaryExecutorImpl executor = BinaryExecutorImpl.builder()
+                .binary(binary)
+                .workingDirectory(workingDirectory)
+                .build();
+
+        return new Entry(binary, workingDirectory, executor);
+    }
+
+    private static class Entry {
+        private final Binary binary;
+        private final File workingDirectory;
+        private final BinaryExecutorImpl executor;
+        private int referenceCount;
+
+        Entry(Binary binary, File workingDirectory, BinaryExecutorImpl executor) {
+            this.binary = binary;
+            this.workingDirectory = workingDirectory;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * A reference to a shared executor. Closing it releases the reference - executing commands
+     * afterwards fails with an {@link IllegalStateException}.
+     */
+    public static final class SharedBinaryExecutor implements BinaryExecutor, AutoCloseable {
+        private final BinaryExecutorRegistry registry;
+        private final Binaries.Platform platform;
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private SharedBinaryExecutor(BinaryExecutorRegistry registry, Binaries.Platform platform, Entry entry) {
+            this.registry = registry;
+            this.platform = platform;
+            this.entry = entry;
+        }
+
+        public Binary getBinary() {
+            return entry.binary;
+        }
+
+        public File getWorkingDirectory() {
+            return entry.workingDirectory;
+        }
+
+        @Override
+        public Flux<ProcessResult> execute(List<String> args) {
+            if (closed.get()) {
+                return Flux.error(new IllegalStateException("Executor has already been closed"));
+            }
+            return entry.executor.execute(args);
+        }
+
+        /**
+         * Releases this reference. Closing an executor more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                registry.release(platform, entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import lombok.Getter;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Cryptotool} caching the results of deterministic operations:
+ * {@link #verifySignature(String, String, String)}, {@link #generateHmac(String, String)},
+ * {@link #verifyHmac(String, String, String)} and
+ * {@link #createDeviceCertificate(String, String, String, String)}.
+ * All other operations are passed to the delegate unchanged - signatures in particular
+ * are never cached as ECDSA signing is randomized.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the operation and its arguments, so the cache does
+ * not retain messages or keys. Only successful results are cached.
+ */
+public class CachingCryptotool implements Cryptotool {
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+    private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10L);
+
+    private final Cryptotool delegate;
+    private final Cache<HashCode, Object> cache;
+
+    /**
+     * @param delegate          the instance performing the operations on a cache miss
+     * @param maximumSize       the maximum number of cached results; defaults to 10000
+     * @param expireAfterWrite  the time after which a cached result is evicted; defaults to 10 minutes
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    public CachingCryptotool(Cryptotool delegate, Long maximumSize, Duration expireAfterWrite) {
+        requireNonNull(delegate, "`delegate` must not be null");
+        checkArgument(maximumSize == null || maximumSize >= 0, "`maximumSize` must not be negative");
+        checkArgument(expireAfterWrite == null || !expireAfterWrite.isNegative(),
+                "`expireAfterWrite` must not be negative");
+
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize != null ? maximumSize : DEFAULT_MAXIMUM_SIZE)
+                .expireAfterWrite((expireAfterWrite != null ? expireAfterWrite : DEFAULT_EXPIRE_AFTER_WRITE)
+                        .toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Provides a snapshot of the cache statistics.
+     *
+     * @return the current stats
+     */
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return Stats.builder()
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .size(cache.size())
+                .build();
+    }
+
+    /**
+     * Discards all cached results.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Mono<Version> version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Mono<Keys> generateKeys() {
+        return delegate.generateKeys();
+    }
+
+    @Override
+    public Mono<Signature> generateSignature(String message, String privateKey) {
+        return delegate.generateSignature(message, privateKey);
+    }
+
+    @Override
+    public Flux<Signature> generateSignatures(Publisher<? extends SignRequest> requests, BatchOptions batchOptions) {
+        return delegate.generateSignatures(requests, batchOptions);
+    }
+
+    @Override
+    public Mono<Validity> verifySignature(String message, String signature, String publicKey) {
+        return cached(() -> key("verify", message, signature, publicKey),
+                () -> delegate.verifySignature(message, signature, publicKey));
+    }
+
+    @Override
+    public Mono<Hmac> generateHmac(String message, String key) {
+        return cached(() -> key("hmac", message, key),
+                () -> delegate.generateHmac(message, key));
+    }
+
+    @Override
+    public Mono<Validity> verifyHmac(String message, String key, String hmac) {
+        return cached(() -> key("hmacver", message, key, hmac),
+                () -> delegate.verifyHmac(message, key, hmac));
+    }
+
+    @Override
+    public Mono<AccessCertificate> createAccessCertificate(int version,
+                                                           String issuer,
+                                                           String providingSerial,
+                                                           String gainingSerial,
+                                                           String gainingPublicKey,
+                                                           LocalDateTime startDate,
+                                                           LocalDateTime endDate,
+                                                           String permissions) {
+        return delegate.createAccessCertificate(version, issuer, providingSerial, gainingSerial,
+                gainingPublicKey, startDate, endDate, permissions);
+    }
+
+    @Override
+    public Mono<DeviceCertificate> createDeviceCertificate(String issuer,
+                                                           String appId,
+                                                           String serial,
+                                                           String publicKey) {
+        return cached(() -> key("device", issuer, appId, serial, publicKey),
+                () -> delegate.createDeviceCertificate(issuer, appId, serial, publicKey));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> cached(Supplier<HashCode> keySupplier, Supplier<Mono<T>> operation) {
+        return Mono.defer(() -> {
+            HashCode key = keySupplier.get();
+            T value = (T) cache.getIfPresent(key);
+            if (value != null) {
+                return Mono.just(value);
+            }
+            return operation.get()
+                    .doOnNext(result -> cache.put(key, result));
+        });
+    }
+
+    private static HashCode key(String operation, String... args) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putUnencodedChars(operation);
+        for (String arg : args) {
+            requireNonNull(arg, "arguments must not be null");
+            hasher.putInt(arg.length())
+                    .putUnencodedChars(arg);
+        }
+        return hasher.hash();
+    }
+
+    @Getter
+    @lombok.Builder(builderClassName = "Builder")
+    public static class Stats {
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private long size;
+    }
+}
@@ -0,0 +1,85 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import lombok.Singular;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link BinaryExecutor} letting concurrent executions with identical arguments share
+ * a single process. Only commands explicitly opted in are coalesced - all other commands
+ * are passed to the delegate unchanged.
+ * <p>
+ * An execution is shared from its first subscription until it terminates; executions started
+ * afterwards spawn a new process. The process is cancelled only if all subscribers cancelled.
+ * The delegate sees the subscriber context of the first subscriber only, e.g. a shared execution
+ * runs in the priority lane of its first subscriber (see {@link PrioritizingBinaryExecutor}).
+ * <p>
+ * Commands producing random output like {@code keys} must never be coalesced.
+ */
+public class CoalescingBinaryExecutor implements BinaryExecutor {
+    private static final String KEYS_COMMAND = "keys";
+
+    private final BinaryExecutor delegate;
+    private final Set<String> commands;
+    private final ConcurrentMap<List<String>, Flux<ProcessResult>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate the executor actually spawning the processes
+     * @param commands the names of the commands to coalesce, i.e. the first argument passed to
+     *                 the binary, e.g. {@code -v} or {@code verify}
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    public CoalescingBinaryExecutor(BinaryExecutor delegate, @Singular Set<String> commands) {
+        requireNonNull(delegate, "`delegate` must not be null");
+        requireNonNull(commands, "`commands` must not be null");
+        checkArgument(!commands.contains(KEYS_COMMAND), "`commands` must not contain `keys`");
+
+        this.delegate = delegate;
+        this.commands = ImmutableSet.copyOf(commands);
+    }
+
+    /**
+     * @return the number of distinct executions currently shared
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public Flux<ProcessResult> execute(List<String> args) {
+        requireNonNull(args);
+
+        if (!commands.contains(CryptotoolMetrics.commandName(args))) {
+            return delegate.execute(args);
+        }
+
+        List<String> key = ImmutableList.copyOf(args);
+
+        return Flux.defer(() -> inFlight.computeIfAbsent(key, this::share));
+    }
+
+    private Flux<ProcessResult> share(List<String> args) {
+        AtomicReference<Flux<ProcessResult>> shared = new AtomicReference<>();
+        Runnable release = () -> inFlight.remove(args, shared.get());
+
+        // release before the terminal signal is propagated so that executions
+        // started after a subscriber received the result spawn a new process
+        shared.set(delegate.execute(args)
+                .doOnTerminate(release)
+                .doOnCancel(release)
+                .replay(1)
+                .refCount());
+
+        return shared.get();
+    }
+}
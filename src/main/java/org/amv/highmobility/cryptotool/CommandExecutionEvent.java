@@ -0,0 +1,45 @@
+package org.amv.highmobility.cryptotool;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event spanning the execution of a command including waiting for a free process slot
+ * and parsing the output. Only referenced via {@link JfrEvents}.
+ */
+@Name("org.amv.highmobility.cryptotool.CommandExecution")
+@Label("Cryptotool Command Execution")
+@Description("Executing a command of the binary and parsing its output")
+@Category("Cryptotool")
+@StackTrace(false)
+@Enabled(false)
+class CommandExecutionEvent extends Event {
+
+    static CommandExecutionEvent beginIfEnabled() {
+        CommandExecutionEvent event = new CommandExecutionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Label("Command")
+    String command;
+
+    @Label("Parse Time")
+    @Timespan
+    long parseTime;
+
+    @Label("Timed Out")
+    boolean timedOut;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -1,8 +1,11 @@
 package org.amv.highmobility.cryptotool;
 
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -17,6 +20,54 @@ public interface Cryptotool {
 
     Mono<Validity> verifySignature(String message, String signature, String publicKey);
 
+    default Flux<Signature> generateSignatures(Publisher<? extends SignRequest> requests) {
+        return generateSignatures(requests, BatchOptions.createDefault());
+    }
+
+    /**
+     * Generates a signature for every request. At most {@link BatchOptions#getParallelism()} requests
+     * are processed at once and requests are only demanded from upstream as fast as they are processed.
+     *
+     * @param requests     the messages to sign along with their private keys
+     * @param batchOptions controls parallelism and emission order
+     * @return the signatures - in the order of their requests if {@link BatchOptions#isOrdered()}
+     */
+    default Flux<Signature> generateSignatures(Publisher<? extends SignRequest> requests, BatchOptions batchOptions) {
+        requireNonNull(requests, "`requests` must not be null");
+        requireNonNull(batchOptions, "`batchOptions` must not be null");
+
+        Function<SignRequest, Mono<Signature>> generateSignature = request ->
+                generateSignature(request.getMessage(), request.getPrivateKey());
+
+        Flux<? extends SignRequest> requestFlux = Flux.from(requests);
+        return batchOptions.isOrdered() ?
+                requestFlux.flatMapSequential(generateSignature, batchOptions.getParallelism()) :
+                requestFlux.flatMap(generateSignature, batchOptions.getParallelism());
+    }
+
+    default Flux<Validity> verifySignatures(Publisher<? extends VerifyRequest> requests) {
+        return verifySignatures(requests, BatchOptions.createDefault());
+    }
+
+    /**
+     * Verifies a signature for every request. At most {@link BatchOptions#getParallelism()} requests
+     * are processed at once and requests are only demanded from upstream as fast as they are processed.
+     * Validities are always emitted in the order of their requests, {@link BatchOptions#isOrdered()}
+     * is ignored.
+     *
+     * @param requests     the messages and signatures to verify along with their public keys
+     * @param batchOptions controls parallelism
+     * @return the validities in the order of their requests
+     */
+    default Flux<Validity> verifySignatures(Publisher<? extends VerifyRequest> requests, BatchOptions batchOptions) {
+        requireNonNull(requests, "`requests` must not be null");
+        requireNonNull(batchOptions, "`batchOptions` must not be null");
+
+        return Flux.from(requests)
+                .flatMapSequential(request -> verifySignature(request.getMessage(), request.getSignature(),
+                        request.getPublicKey()), batchOptions.getParallelism());
+    }
+
     Mono<Hmac> generateHmac(String message, String key);
 
     Mono<Validity> verifyHmac(String message, String key, String hmac);
@@ -90,6 +141,20 @@ public interface Cryptotool {
         String getSignature();
     }
 
+    interface SignRequest {
+        String getMessage();
+
+        String getPrivateKey();
+    }
+
+    interface VerifyRequest {
+        String getMessage();
+
+        String getSignature();
+
+        String getPublicKey();
+    }
+
     interface Hmac {
         String getHmac();
     }
@@ -4,9 +4,27 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.amv.highmobility.cryptotool.command.*;
+import org.amv.highmobility.cryptotool.engine.AccessCertificateEngine;
+import org.amv.highmobility.cryptotool.engine.DeviceCertificateEngine;
+import org.amv.highmobility.cryptotool.engine.HmacEngine;
+import org.amv.highmobility.cryptotool.engine.KeysEngine;
+import org.amv.highmobility.cryptotool.engine.SignatureEngine;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
@@ -16,73 +34,178 @@ public class CryptotoolImpl implements Cryptotool {
 
     private final BinaryExecutor binaryExecutor;
     private final CryptotoolOptions options;
+    private final AtomicReference<Mono<Version>> version = new AtomicReference<>();
 
-    public CryptotoolImpl(CryptotoolOptions options) throws IllegalArgumentException {
+    /**
+     * @throws IllegalStateException if {@link CryptotoolOptions#isProbeBinaryOnStartup()} is enabled
+     *                               and the binary cannot be executed on this host
+     */
+    public CryptotoolImpl(CryptotoolOptions options) throws IllegalArgumentException, IllegalStateException {
         this.options = requireNonNull(options, "`options` must not be null");
         this.binaryExecutor = requireNonNull(options.getBinaryExecutor());
+
+        if (options.isProbeBinaryOnStartup()) {
+            try {
+                Version probedVersion = refreshVersion().block();
+                log.info("Using binary version {}", probedVersion.getFullVersionString());
+            } catch (Exception e) {
+                throw new IllegalStateException("Binary cannot be executed on this host", e);
+            }
+        }
     }
 
+    /**
+     * The binary is executed only once - subsequent calls return the cached result.
+     * Failed executions are not cached.
+     *
+     * @see #refreshVersion()
+     */
     @Override
     public Mono<Version> version() {
-        return VersionCommand.builder()
-                .build()
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+        return Mono.defer(() -> {
+            Mono<Version> cachedVersion = version.get();
+            while (cachedVersion == null) {
+                Mono<Version> newVersion = newCachedVersion();
+                cachedVersion = version.compareAndSet(null, newVersion) ? newVersion : version.get();
+            }
+            return cachedVersion;
+        });
+    }
+
+    /**
+     * Executes the binary to determine its version and replaces the cached result.
+     */
+    public Mono<Version> refreshVersion() {
+        Mono<Version> newVersion = newCachedVersion();
+        version.set(newVersion);
+        return newVersion;
+    }
+
+    /**
+     * The binary is executed on first subscription only, so creating an instance that is never
+     * installed does not fork a process. Failed executions remove themselves from the cache.
+     */
+    private Mono<Version> newCachedVersion() {
+        AtomicReference<Mono<Version>> self = new AtomicReference<>();
+        self.set(execute(VersionCommand.builder().build())
+                .doOnError(e -> version.compareAndSet(self.get(), null))
+                .cache());
+        return self.get();
     }
 
     public Mono<Keys> generateKeys() {
-        return KeysCommand.builder()
-                .build()
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+        Optional<KeysEngine> keysEngine = options.getKeysEngine();
+        if (keysEngine.isPresent()) {
+            return Mono.fromCallable(() -> keysEngine.get().generateKeys());
+        }
+
+        return execute(KeysCommand.builder().build());
     }
 
     @Override
     public Mono<Signature> generateSignature(String message, String privateKey) {
-        return SignCommand.builder()
+        Optional<SignatureEngine> signatureEngine = options.getSignatureEngine();
+        if (signatureEngine.isPresent()) {
+            return Mono.fromCallable(() -> signatureEngine.get().sign(message, privateKey));
+        }
+
+        return execute(SignCommand.builder()
                 .message(message)
                 .privateKey(privateKey)
-                .build()
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+                .build());
+    }
+
+    /**
+     * If an in-process {@link SignatureEngine} is configured, requests are signed in chunks of
+     * {@link BatchOptions#getChunkSize()} on the parallel scheduler. Otherwise every request
+     * spawns the binary.
+     */
+    @Override
+    public Flux<Signature> generateSignatures(Publisher<? extends SignRequest> requests, BatchOptions batchOptions) {
+        Optional<SignatureEngine> signatureEngine = options.getSignatureEngine();
+        if (!signatureEngine.isPresent()) {
+            return Cryptotool.super.generateSignatures(requests, batchOptions);
+        }
+
+        requireNonNull(requests, "`requests` must not be null");
+        requireNonNull(batchOptions, "`batchOptions` must not be null");
+
+        Function<List<SignRequest>, Flux<Signature>> generateSignatures = chunk ->
+                Mono.fromCallable(() -> chunk.stream()
+                        .map(request -> signatureEngine.get().sign(request.getMessage(), request.getPrivateKey()))
+                        .collect(Collectors.toList()))
+                        .subscribeOn(Schedulers.parallel())
+                        .flatMapIterable(Function.identity());
+
+        Flux<List<SignRequest>> chunks = Flux.<SignRequest>from(requests)
+                .buffer(batchOptions.getChunkSize());
+
+        return batchOptions.isOrdered() ?
+                chunks.flatMapSequential(generateSignatures, batchOptions.getParallelism()) :
+                chunks.flatMap(generateSignatures, batchOptions.getParallelism());
     }
 
     @Override
     public Mono<Validity> verifySignature(String message, String signature, String publicKey) {
-        return VerifyCommand.builder()
+        Optional<SignatureEngine> signatureEngine = options.getSignatureEngine();
+        if (signatureEngine.isPresent()) {
+            return Mono.fromCallable(() -> signatureEngine.get().verify(message, signature, publicKey));
+        }
+
+        return execute(VerifyCommand.builder()
                 .message(message)
                 .signature(signature)
                 .publicKey(publicKey)
-                .build()
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+                .build());
+    }
+
+    /**
+     * If an in-process {@link SignatureEngine} is configured, requests are verified in chunks of
+     * {@link BatchOptions#getChunkSize()} on the parallel scheduler, letting the engine group each
+     * chunk by public key. Otherwise every request spawns the binary.
+     */
+    @Override
+    public Flux<Validity> verifySignatures(Publisher<? extends VerifyRequest> requests, BatchOptions batchOptions) {
+        Optional<SignatureEngine> signatureEngine = options.getSignatureEngine();
+        if (!signatureEngine.isPresent()) {
+            return Cryptotool.super.verifySignatures(requests, batchOptions);
+        }
+
+        requireNonNull(requests, "`requests` must not be null");
+        requireNonNull(batchOptions, "`batchOptions` must not be null");
+
+        return Flux.<VerifyRequest>from(requests)
+                .buffer(batchOptions.getChunkSize())
+                .flatMapSequential(chunk -> Mono.fromCallable(() -> signatureEngine.get().verifyAll(chunk))
+                        .subscribeOn(Schedulers.parallel())
+                        .flatMapIterable(Function.identity()), batchOptions.getParallelism());
     }
 
     @Override
     public Mono<Hmac> generateHmac(String message, String key) {
-        return HmacCommand.builder()
+        Optional<HmacEngine> hmacEngine = options.getHmacEngine();
+        if (hmacEngine.isPresent()) {
+            return Mono.fromCallable(() -> hmacEngine.get().generateHmac(message, key));
+        }
+
+        return execute(HmacCommand.builder()
                 .message(message)
                 .key(key)
-                .build()
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+                .build());
     }
 
     @Override
     public Mono<Validity> verifyHmac(String message, String key, String hmac) {
-        return HmacVerifyCommand.builder()
+        Optional<HmacEngine> hmacEngine = options.getHmacEngine();
+        if (hmacEngine.isPresent()) {
+            return Mono.fromCallable(() -> hmacEngine.get().verifyHmac(message, key, hmac));
+        }
+
+        return execute(HmacVerifyCommand.builder()
                 .message(message)
                 .key(key)
                 .hmac(hmac)
-                .build()
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+                .build());
     }
 
     @Override
@@ -90,15 +213,18 @@ public class CryptotoolImpl implements Cryptotool {
                                                            String appId,
                                                            String serial,
                                                            String publicKey) {
-        return DeviceCommand.builder()
+        Optional<DeviceCertificateEngine> deviceCertificateEngine = options.getDeviceCertificateEngine();
+        if (deviceCertificateEngine.isPresent()) {
+            return Mono.fromCallable(() -> deviceCertificateEngine.get()
+                    .createDeviceCertificate(issuer, appId, serial, publicKey));
+        }
+
+        return execute(DeviceCommand.builder()
                 .issuer(issuer)
                 .appId(appId)
                 .serial(serial)
                 .publicKey(publicKey)
-                .build()
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+                .build());
     }
 
     @Override
@@ -112,6 +238,12 @@ public class CryptotoolImpl implements Cryptotool {
                                                            String permissions) {
         checkArgument(version == 0 || version == 1, "`version` has invalid value");
 
+        Optional<AccessCertificateEngine> accessCertificateEngine = options.getAccessCertificateEngine();
+        if (accessCertificateEngine.isPresent()) {
+            return Mono.fromCallable(() -> accessCertificateEngine.get().createAccessCertificate(version,
+                    issuer, providingSerial, gainingSerial, gainingPublicKey, startDate, endDate, permissions));
+        }
+
         Command<Cryptotool.AccessCertificate> command;
         if (version == 0) {
             command = createAccessCommandV0(providingSerial, gainingSerial, gainingPublicKey, startDate, endDate, permissions);
@@ -119,10 +251,7 @@ public class CryptotoolImpl implements Cryptotool {
             command = createAccessCommandV1(issuer, providingSerial, gainingSerial, gainingPublicKey, startDate, endDate, permissions);
         }
 
-        return command
-                .execute(binaryExecutor)
-                .timeout(options.getCommandTimeout())
-                .single();
+        return execute(command);
     }
 
 
@@ -160,6 +289,46 @@ public class CryptotoolImpl implements Cryptotool {
                 .build();
     }
 
+    /**
+     * Executes a command with the configured timeout and records the time spent parsing the output
+     * of the binary as well as timeouts on {@link CryptotoolOptions#getMetrics()} and, if enabled,
+     * as JFR event.
+     */
+    private <T> Mono<T> execute(Command<T> command) {
+        CryptotoolMetrics metrics = options.getMetrics();
+
+        return Mono.defer(() -> {
+            Object event = JfrEvents.beginCommandExecution();
+            AtomicReference<String> commandName = new AtomicReference<>("");
+            AtomicLong processResultNanos = new AtomicLong();
+            AtomicReference<Duration> parseTime = new AtomicReference<>();
+            AtomicBoolean timedOut = new AtomicBoolean();
+
+            BinaryExecutor measuringBinaryExecutor = args -> {
+                commandName.set(CryptotoolMetrics.commandName(args));
+                return binaryExecutor.execute(args)
+                        .doOnNext(processResult -> processResultNanos.set(System.nanoTime()));
+            };
+
+            return command.execute(measuringBinaryExecutor)
+                    .doOnNext(result -> {
+                        parseTime.set(Duration.ofNanos(System.nanoTime() - processResultNanos.get()));
+                        metrics.recordParseTime(commandName.get(), parseTime.get());
+                    })
+                    .timeout(options.getCommandTimeout())
+                    .doOnError(TimeoutException.class, e -> {
+                        timedOut.set(true);
+                        metrics.recordTimeout(commandName.get());
+                    })
+                    .single()
+                    .doFinally(signalType -> JfrEvents.commitCommandExecution(event, commandName.get(),
+                            parseTime.get(), timedOut.get(), signalType == SignalType.ON_ERROR));
+        }).subscriberContext(context -> options.getPriorityClass()
+                .filter(priorityClass -> !context.hasKey(PrioritizingBinaryExecutor.PRIORITY_CLASS_KEY))
+                .map(priorityClass -> context.put(PrioritizingBinaryExecutor.PRIORITY_CLASS_KEY, priorityClass))
+                .orElse(context));
+    }
+
     @Getter
     @Builder(builderClassName = "Builder")
     public static class VersionImpl implements Version {
@@ -195,6 +364,21 @@ public class CryptotoolImpl implements Cryptotool {
         private String signature;
     }
 
+    @Getter
+    @Builder(builderClassName = "Builder")
+    public static class SignRequestImpl implements SignRequest {
+        private String message;
+        private String privateKey;
+    }
+
+    @Getter
+    @Builder(builderClassName = "Builder")
+    public static class VerifyRequestImpl implements VerifyRequest {
+        private String message;
+        private String signature;
+        private String publicKey;
+    }
+
     @Getter
     @Builder(builderClassName = "Builder")
     public static class HmacImpl implements Hmac {
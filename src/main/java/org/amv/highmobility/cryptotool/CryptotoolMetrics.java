@@ -0,0 +1,83 @@
+package org.amv.highmobility.cryptotool;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A callback to record latencies and outcomes of the commands executed by the binary.
+ * Implementations can forward the values to any metrics library, e.g. as timers and counters
+ * tagged with the command name.
+ * <p>
+ * The command name is the first argument passed to the binary, e.g. {@code sign},
+ * {@code verify} or {@code access}. All methods are no-ops by default and may be called
+ * concurrently - implementations must be thread-safe and must not block.
+ */
+public interface CryptotoolMetrics {
+    CryptotoolMetrics NOOP = new CryptotoolMetrics() {
+    };
+
+    static String commandName(List<String> args) {
+        return args.isEmpty() ? "" : args.get(0);
+    }
+
+    /**
+     * @param command  the command name
+     * @param duration the time it took to start the process
+     */
+    default void recordSpawnTime(String command, Duration duration) {
+    }
+
+    /**
+     * @param command  the command name
+     * @param duration the time from starting the process until it exited
+     */
+    default void recordRunTime(String command, Duration duration) {
+    }
+
+    /**
+     * @param command  the command name
+     * @param duration the time spent waiting for stderr to be drained after the process exited
+     */
+    default void recordDrainTime(String command, Duration duration) {
+    }
+
+    /**
+     * @param command  the command name
+     * @param duration the time it took to parse the output of the process
+     */
+    default void recordParseTime(String command, Duration duration) {
+    }
+
+    /**
+     * @param command the command name
+     * @param status  the exit status of the process
+     */
+    default void recordExitStatus(String command, int status) {
+    }
+
+    /**
+     * @param command the command name that did not complete within the command timeout
+     */
+    default void recordTimeout(String command) {
+    }
+
+    /**
+     * @param command the command name whose process has written to stderr
+     */
+    default void recordStderrOutput(String command) {
+    }
+
+    /**
+     * @param lane     the name of the priority lane
+     * @param duration the time an execution waited for a free slot
+     */
+    default void recordLaneWaitTime(String lane, Duration duration) {
+    }
+
+    /**
+     * @param lane     the name of the priority lane
+     * @param duration the time from starting an execution until it terminated
+     */
+    default void recordLaneRunTime(String lane, Duration duration) {
+    }
+}
@@ -1,9 +1,74 @@
 package org.amv.highmobility.cryptotool;
 
+import org.amv.highmobility.cryptotool.engine.AccessCertificateEngine;
+import org.amv.highmobility.cryptotool.engine.DeviceCertificateEngine;
+import org.amv.highmobility.cryptotool.engine.HmacEngine;
+import org.amv.highmobility.cryptotool.engine.KeysEngine;
+import org.amv.highmobility.cryptotool.engine.SignatureEngine;
+
 import java.time.Duration;
+import java.util.Optional;
 
 public interface CryptotoolOptions {
     BinaryExecutor getBinaryExecutor();
 
     Duration getCommandTimeout();
+
+    /**
+     * @return whether the binary is executed once on creation of a {@link Cryptotool} to fail fast
+     * if it cannot be run on this host
+     */
+    default boolean isProbeBinaryOnStartup() {
+        return false;
+    }
+
+    /**
+     * @return a callback recording latencies and outcomes of commands executed by the binary
+     */
+    default CryptotoolMetrics getMetrics() {
+        return CryptotoolMetrics.NOOP;
+    }
+
+    /**
+     * @return the lane commands are scheduled in by a {@link PrioritizingBinaryExecutor} unless
+     * a priority class is set in the subscriber context
+     */
+    default Optional<String> getPriorityClass() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return an engine creating and verifying signatures in-process instead of spawning the binary
+     */
+    default Optional<SignatureEngine> getSignatureEngine() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return an engine generating and verifying hmacs in-process instead of spawning the binary
+     */
+    default Optional<HmacEngine> getHmacEngine() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return an engine generating key pairs in-process instead of spawning the binary
+     */
+    default Optional<KeysEngine> getKeysEngine() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return an engine creating device certificates in-process instead of spawning the binary
+     */
+    default Optional<DeviceCertificateEngine> getDeviceCertificateEngine() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return an engine creating access certificates in-process instead of spawning the binary
+     */
+    default Optional<AccessCertificateEngine> getAccessCertificateEngine() {
+        return Optional.empty();
+    }
 }
\ No newline at end of file
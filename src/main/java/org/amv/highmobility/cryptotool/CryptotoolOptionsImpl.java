@@ -1,10 +1,18 @@
 package org.amv.highmobility.cryptotool;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Getter;
+import org.amv.highmobility.cryptotool.engine.AccessCertificateEngine;
+import org.amv.highmobility.cryptotool.engine.DeviceCertificateEngine;
+import org.amv.highmobility.cryptotool.engine.HmacEngine;
+import org.amv.highmobility.cryptotool.engine.KeysEngine;
+import org.amv.highmobility.cryptotool.engine.SignatureEngine;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -12,10 +20,20 @@ import static java.util.Objects.requireNonNull;
 @Builder(builderClassName = "Builder")
 public class CryptotoolOptionsImpl implements CryptotoolOptions {
 
+    /**
+     * Creates options using the executor shared via {@link BinaryExecutorRegistry#getDefault()},
+     * so all instances created this way share one binary and one working directory.
+     * The acquired reference is released on JVM shutdown - use {@link BinaryExecutorRegistry#acquire()}
+     * directly to release it earlier.
+     */
     public static CryptotoolOptionsImpl createDefault() {
-        return CryptotoolOptionsImpl.builder()
-                .binaryExecutor(BinaryExecutorImpl.createDefault())
-                .build();
+        try {
+            return CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(BinaryExecutorRegistry.getDefault().acquire())
+                    .build();
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating default binary executor", e);
+        }
     }
 
     private BinaryExecutor binaryExecutor;
@@ -29,11 +47,115 @@ public class CryptotoolOptionsImpl implements CryptotoolOptions {
     @Default
     private Duration commandTimeout = Duration.ofSeconds(3L);
 
-    CryptotoolOptionsImpl(BinaryExecutor binaryExecutor, Duration commandTimeout) {
+    /**
+     * If enabled, {@link CryptotoolImpl} determines the version of the binary on creation and
+     * fails with an {@link IllegalStateException} if it cannot be executed.
+     */
+    private boolean probeBinaryOnStartup;
+
+    /**
+     * Records parse times and timeouts of commands. Process level metrics like spawn and
+     * run time are recorded by passing the same instance to {@link BinaryExecutorImpl}.
+     */
+    @Default
+    private CryptotoolMetrics metrics = CryptotoolMetrics.NOOP;
+
+    /**
+     * An optional priority class, e.g. {@code interactive} or {@code bulk}, of all commands
+     * executed by this instance. Only has an effect with a {@link PrioritizingBinaryExecutor}.
+     */
+    @Getter(AccessLevel.NONE)
+    private String priorityClass;
+
+    /**
+     * An optional engine that creates and verifies signatures in-process.
+     * If not set, signatures are created and verified by spawning the binary.
+     */
+    @Getter(AccessLevel.NONE)
+    private SignatureEngine signatureEngine;
+
+    /**
+     * An optional engine that generates and verifies hmacs in-process.
+     * If not set, hmacs are generated and verified by spawning the binary.
+     */
+    @Getter(AccessLevel.NONE)
+    private HmacEngine hmacEngine;
+
+    /**
+     * An optional engine that generates key pairs in-process, e.g. a
+     * {@link org.amv.highmobility.cryptotool.engine.KeyPool}.
+     * If not set, key pairs are generated by spawning the binary.
+     */
+    @Getter(AccessLevel.NONE)
+    private KeysEngine keysEngine;
+
+    /**
+     * An optional engine that creates device certificates in-process.
+     * If not set, device certificates are created by spawning the binary.
+     */
+    @Getter(AccessLevel.NONE)
+    private DeviceCertificateEngine deviceCertificateEngine;
+
+    /**
+     * An optional engine that creates access certificates in-process.
+     * If not set, access certificates are created by spawning the binary.
+     */
+    @Getter(AccessLevel.NONE)
+    private AccessCertificateEngine accessCertificateEngine;
+
+    CryptotoolOptionsImpl(BinaryExecutor binaryExecutor,
+                          Duration commandTimeout,
+                          boolean probeBinaryOnStartup,
+                          CryptotoolMetrics metrics,
+                          String priorityClass,
+                          SignatureEngine signatureEngine,
+                          HmacEngine hmacEngine,
+                          KeysEngine keysEngine,
+                          DeviceCertificateEngine deviceCertificateEngine,
+                          AccessCertificateEngine accessCertificateEngine) {
         requireNonNull(binaryExecutor, "`binaryExecutor` must not be null");
         requireNonNull(commandTimeout, "`commandTimeout` must not be null");
+        requireNonNull(metrics, "`metrics` must not be null");
 
         this.binaryExecutor = binaryExecutor;
         this.commandTimeout = commandTimeout;
+        this.probeBinaryOnStartup = probeBinaryOnStartup;
+        this.metrics = metrics;
+        this.priorityClass = priorityClass;
+        this.signatureEngine = signatureEngine;
+        this.hmacEngine = hmacEngine;
+        this.keysEngine = keysEngine;
+        this.deviceCertificateEngine = deviceCertificateEngine;
+        this.accessCertificateEngine = accessCertificateEngine;
+    }
+
+    @Override
+    public Optional<String> getPriorityClass() {
+        return Optional.ofNullable(priorityClass);
+    }
+
+    @Override
+    public Optional<SignatureEngine> getSignatureEngine() {
+        return Optional.ofNullable(signatureEngine);
+    }
+
+    @Override
+    public Optional<HmacEngine> getHmacEngine() {
+        return Optional.ofNullable(hmacEngine);
+    }
+
+    @Override
+    public Optional<KeysEngine> getKeysEngine() {
+        return Optional.ofNullable(keysEngine);
+    }
+
+    @Override
+    public Optional<DeviceCertificateEngine> getDeviceCertificateEngine() {
+        return Optional.ofNullable(deviceCertificateEngine);
+    }
+
+    @Override
+    public Optional<AccessCertificateEngine> getAccessCertificateEngine() {
+        return Optional.ofNullable(accessCertificateEngine);
     }
 }
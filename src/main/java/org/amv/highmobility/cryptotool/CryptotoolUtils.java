@@ -7,8 +7,6 @@ import org.apache.commons.lang3.RandomStringUtils;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import java.util.Base64;
 import java.util.Random;
 
@@ -20,6 +18,8 @@ import static org.apache.commons.codec.binary.Base64.isBase64;
  * Packaged with sources for easier development
  */
 public final class CryptotoolUtils {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     private CryptotoolUtils() {
         throw new UnsupportedOperationException();
     }
@@ -43,17 +43,24 @@ public final class CryptotoolUtils {
         }
     }
 
+    /**
+     * Encodes a date as 5 bytes (year since 2000, month, day, hour, minute) in lower case hex.
+     * The date is interpreted as UTC date.
+     */
     public static String encodeAsHex(LocalDateTime dateTime) {
-        ZonedDateTime zonedDateTime = dateTime.atZone(ZoneOffset.UTC);
-
-        byte[] bytes = new byte[5];
-        bytes[0] = (byte) (zonedDateTime.getYear() - 2000);
-        bytes[1] = (byte) (zonedDateTime.getMonthValue());
-        bytes[2] = (byte) (zonedDateTime.getDayOfMonth());
-        bytes[3] = (byte) (zonedDateTime.getHour());
-        bytes[4] = (byte) (zonedDateTime.getMinute());
+        char[] chars = new char[10];
+        putHex(chars, 0, dateTime.getYear() - 2000);
+        putHex(chars, 2, dateTime.getMonthValue());
+        putHex(chars, 4, dateTime.getDayOfMonth());
+        putHex(chars, 6, dateTime.getHour());
+        putHex(chars, 8, dateTime.getMinute());
+
+        return new String(chars);
+    }
 
-        return Hex.encodeHexString(bytes);
+    private static void putHex(char[] chars, int offset, int value) {
+        chars[offset] = HEX_DIGITS[(value & 0xF0) >>> 4];
+        chars[offset + 1] = HEX_DIGITS[value & 0x0F];
     }
 
     public static final class SecureRandomUtils {
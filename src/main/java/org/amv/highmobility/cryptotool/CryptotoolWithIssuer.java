@@ -1,13 +1,20 @@
 package org.amv.highmobility.cryptotool;
 
 import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import org.apache.commons.codec.binary.Hex;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
@@ -45,6 +52,73 @@ public interface CryptotoolWithIssuer extends Cryptotool {
         }
     }
 
+    interface AccessCertificateRequest {
+        String getProvidingSerial();
+
+        String getGainingSerial();
+
+        String getGainingPublicKey();
+
+        LocalDateTime getStartDate();
+
+        LocalDateTime getEndDate();
+
+        Permissions getPermissions();
+    }
+
+    @Getter
+    @Builder
+    class AccessCertificateRequestImpl implements AccessCertificateRequest {
+        private String providingSerial;
+        private String gainingSerial;
+        private String gainingPublicKey;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+        private Permissions permissions;
+    }
+
+    /**
+     * The outcome of issuing a single access certificate in bulk:
+     * either an access certificate or the error that occurred.
+     */
+    @Getter
+    @Builder
+    class AccessCertificateResult {
+        static AccessCertificateResult success(AccessCertificateRequest request, AccessCertificate accessCertificate) {
+            return AccessCertificateResult.builder()
+                    .request(request)
+                    .accessCertificate(accessCertificate)
+                    .build();
+        }
+
+        static AccessCertificateResult failure(AccessCertificateRequest request, Throwable error) {
+            return AccessCertificateResult.builder()
+                    .request(request)
+                    .error(error)
+                    .build();
+        }
+
+        private AccessCertificateRequest request;
+
+        @Getter(AccessLevel.NONE)
+        private AccessCertificate accessCertificate;
+
+        @Getter(AccessLevel.NONE)
+        private Throwable error;
+
+        public Optional<AccessCertificate> getAccessCertificate() {
+            return Optional.ofNullable(accessCertificate);
+        }
+
+        public Optional<Throwable> getError() {
+            return Optional.ofNullable(error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
     CertificateIssuer getCertificateIssuer();
 
     default Mono<Signature> generateSignature(String message) {
@@ -72,6 +146,60 @@ public interface CryptotoolWithIssuer extends Cryptotool {
                 startDate, endDate, permissions.getPermissions());
     }
 
+    default Flux<AccessCertificateResult> createAccessCertificatesV1(
+            Publisher<? extends AccessCertificateRequest> requests) {
+        return createAccessCertificatesV1(requests, BatchOptions.createDefault());
+    }
+
+    /**
+     * Issues a version 1 access certificate for every request. At most {@link BatchOptions#getParallelism()}
+     * certificates are issued at once. A failing request does not terminate the stream but results in an
+     * {@link AccessCertificateResult} carrying the error.
+     * <p>
+     * The issuer name is encoded once per call and encoded permissions are reused across requests
+     * referencing the same {@link Permissions} instance.
+     *
+     * @param requests     the access certificates to issue
+     * @param batchOptions controls parallelism and emission order
+     * @return a result for every request - in the order of the requests if {@link BatchOptions#isOrdered()}
+     */
+    default Flux<AccessCertificateResult> createAccessCertificatesV1(
+            Publisher<? extends AccessCertificateRequest> requests,
+            BatchOptions batchOptions) {
+        requireNonNull(requests, "`requests` must not be null");
+        requireNonNull(batchOptions, "`batchOptions` must not be null");
+
+        String issuerNameInHex = getCertificateIssuer().getNameInHex();
+        Cache<Permissions, String> permissionsInHex = CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(16)
+                .build();
+
+        Function<AccessCertificateRequest, Mono<AccessCertificateResult>> createAccessCertificate = request ->
+                Mono.defer(() -> {
+                    Permissions permissions = requireNonNull(request.getPermissions(),
+                            "`permissions` must not be null");
+
+                    String permissionsValue = permissionsInHex.getIfPresent(permissions);
+                    if (permissionsValue == null) {
+                        permissionsValue = permissions.getPermissions();
+                        permissionsInHex.put(permissions, permissionsValue);
+                    }
+
+                    return createAccessCertificate(1, issuerNameInHex,
+                            request.getProvidingSerial(), request.getGainingSerial(), request.getGainingPublicKey(),
+                            request.getStartDate(), request.getEndDate(), permissionsValue);
+                })
+                        .subscribeOn(Schedulers.parallel())
+                        .map(accessCertificate -> AccessCertificateResult.success(request, accessCertificate))
+                        .onErrorResume(e -> Mono.just(AccessCertificateResult.failure(request, e)));
+
+        Flux<? extends AccessCertificateRequest> requestFlux = Flux.from(requests);
+        return batchOptions.isOrdered() ?
+                requestFlux.flatMapSequential(createAccessCertificate, batchOptions.getParallelism()) :
+                requestFlux.flatMap(createAccessCertificate, batchOptions.getParallelism());
+    }
+
     default Mono<AccessCertificate> createAccessCertificate(
             int version,
             String providingSerial,
@@ -1,10 +1,16 @@
 package org.amv.highmobility.cryptotool;
 
 import com.google.common.base.Strings;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 
 import java.io.*;
+import java.net.URL;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
@@ -46,4 +52,28 @@ final class JarUtil {
 
         return targetFile;
     }
+
+    /**
+     * Reads a file inside the jar to determine its size and SHA-256 hash.
+     */
+    static ResourceInfo resourceInfo(String pathToFileInsideJar) throws IOException {
+        requireNonNull(pathToFileInsideJar, "`pathToFileInsideJar` must not be null");
+        checkArgument(!Strings.isNullOrEmpty(pathToFileInsideJar));
+
+        URL resource = JarUtil.class.getResource(pathToFileInsideJar);
+        if (resource == null) {
+            throw new FileNotFoundException("Cannot find " + pathToFileInsideJar + " in jar");
+        }
+
+        try (HashingInputStream is = new HashingInputStream(Hashing.sha256(), resource.openStream())) {
+            long size = ByteStreams.exhaust(is);
+            return new ResourceInfo(is.hash(), size);
+        }
+    }
+
+    @Value
+    static class ResourceInfo {
+        private HashCode sha256;
+        private long size;
+    }
 }
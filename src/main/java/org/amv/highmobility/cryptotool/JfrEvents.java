@@ -0,0 +1,133 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.base.Charsets;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Emits {@link ProcessExecutionEvent} and {@link CommandExecutionEvent} to the Java Flight Recorder.
+ * <p>
+ * The event classes are only loaded if the {@code jdk.jfr} API is present (Java 8u262 or greater),
+ * so callers on older runtimes are not affected. Events are passed around as {@link Object} for
+ * the same reason. If no recording has enabled the events, {@code begin*} returns {@code null}
+ * and {@code commit*} does nothing.
+ */
+@Slf4j
+final class JfrEvents {
+    private static final boolean AVAILABLE = isJfrAvailable();
+    private static final Method PID_METHOD = findPidMethod();
+
+    private JfrEvents() {
+        throw new UnsupportedOperationException();
+    }
+
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    static Object beginProcessExecution() {
+        return AVAILABLE ? ProcessExecutionEvent.beginIfEnabled() : null;
+    }
+
+    /**
+     * @param event    the event returned by {@link #beginProcessExecution()}
+     * @param commands the path of the binary followed by its arguments
+     * @param process  the spawned process or {@code null} if spawning failed
+     */
+    static void commitProcessExecution(Object event,
+                                       List<String> commands,
+                                       Process process,
+                                       int exitStatus,
+                                       Duration spawnTime,
+                                       Duration waitTime,
+                                       Duration drainTime,
+                                       boolean cancelled) {
+        if (event == null) {
+            return;
+        }
+
+        List<String> args = commands.subList(1, commands.size());
+
+        ProcessExecutionEvent processExecutionEvent = (ProcessExecutionEvent) event;
+        processExecutionEvent.command = CryptotoolMetrics.commandName(args);
+        processExecutionEvent.argumentsSize = argumentsSize(args);
+        processExecutionEvent.pid = process != null ? pid(process) : -1L;
+        processExecutionEvent.exitStatus = exitStatus;
+        processExecutionEvent.spawnTime = toNanos(spawnTime);
+        processExecutionEvent.waitTime = toNanos(waitTime);
+        processExecutionEvent.drainTime = toNanos(drainTime);
+        processExecutionEvent.cancelled = cancelled;
+        processExecutionEvent.commit();
+    }
+
+    static Object beginCommandExecution() {
+        return AVAILABLE ? CommandExecutionEvent.beginIfEnabled() : null;
+    }
+
+    /**
+     * @param event the event returned by {@link #beginCommandExecution()}
+     */
+    static void commitCommandExecution(Object event,
+                                       String command,
+                                       Duration parseTime,
+                                       boolean timedOut,
+                                       boolean failed) {
+        if (event == null) {
+            return;
+        }
+
+        CommandExecutionEvent commandExecutionEvent = (CommandExecutionEvent) event;
+        commandExecutionEvent.command = command;
+        commandExecutionEvent.parseTime = toNanos(parseTime);
+        commandExecutionEvent.timedOut = timedOut;
+        commandExecutionEvent.failed = failed;
+        commandExecutionEvent.commit();
+    }
+
+    private static int argumentsSize(List<String> args) {
+        int size = 0;
+        for (String arg : args) {
+            size += arg.getBytes(Charsets.UTF_8).length;
+        }
+        return size;
+    }
+
+    private static long toNanos(Duration duration) {
+        return duration != null ? duration.toNanos() : 0L;
+    }
+
+    /**
+     * {@code Process#pid()} is only available on Java 9 or greater.
+     */
+    private static long pid(Process process) {
+        if (PID_METHOD == null) {
+            return -1L;
+        }
+        try {
+            return (Long) PID_METHOD.invoke(process);
+        } catch (Exception e) {
+            return -1L;
+        }
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.debug("JFR events are disabled: jdk.jfr is not available");
+            return false;
+        }
+    }
+
+    private static Method findPidMethod() {
+        try {
+            return Process.class.getMethod("pid");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.amv.highmobility.cryptotool;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link BinaryExecutor} limiting the number of concurrent executions of its delegate with a
+ * limit adapting to the observed latency (additive increase, multiplicative decrease).
+ * <p>
+ * An execution taking longer than {@code latencyThreshold}, failing or being cancelled (e.g. on
+ * timeout) decreases the limit by {@code backoffRatio}. A timely execution while at least half of
+ * the limit is in use increases the limit by one. Executions exceeding the limit wait in a queue
+ * of bounded length - if the queue is full, executions fail immediately with a
+ * {@link RejectedExecutionException}.
+ * <p>
+ * The subscriber context is passed on to the delegate, so it can be placed in front of a
+ * {@link PrioritizingBinaryExecutor}.
+ */
+@Slf4j
+public class LimitingBinaryExecutor implements BinaryExecutor {
+    private static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofSeconds(1L);
+    private static final double DEFAULT_BACKOFF_RATIO = 0.9d;
+    private static final int DEFAULT_MAX_QUEUE_LENGTH = 256;
+
+    private static int defaultInitialLimit() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    private final BinaryExecutor delegate;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueLength;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final Deque<Execution> queue = new ArrayDeque<>();
+    private double limit;
+    private int inFlightCount;
+
+    /**
+     * @param delegate         the executor spawning the processes
+     * @param initialLimit     the initial number of concurrent executions; defaults to the number of processors
+     * @param minLimit         the lower bound of the limit; defaults to 1
+     * @param maxLimit         the upper bound of the limit; defaults to four times the initial limit
+     * @param maxQueueLength   the maximum number of executions waiting for a free slot; defaults to 256
+     * @param latencyThreshold the latency above which the limit is decreased; defaults to 1 second
+     * @param backoffRatio     the factor the limit is multiplied with on decrease; defaults to 0.9
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    public LimitingBinaryExecutor(BinaryExecutor delegate,
+                                  Integer initialLimit,
+                                  Integer minLimit,
+                                  Integer maxLimit,
+                                  Integer maxQueueLength,
+                                  Duration latencyThreshold,
+                                  Double backoffRatio) {
+        requireNonNull(delegate, "`delegate` must not be null");
+
+        this.delegate = delegate;
+        this.minLimit = minLimit != null ? minLimit : 1;
+        int initial = initialLimit != null ? initialLimit : Math.max(this.minLimit, defaultInitialLimit());
+        this.maxLimit = maxLimit != null ? maxLimit : Math.max(initial, initial * 4);
+        this.maxQueueLength = maxQueueLength != null ? maxQueueLength : DEFAULT_MAX_QUEUE_LENGTH;
+        this.latencyThresholdNanos = (latencyThreshold != null ? latencyThreshold : DEFAULT_LATENCY_THRESHOLD)
+                .toNanos();
+        this.backoffRatio = backoffRatio != null ? backoffRatio : DEFAULT_BACKOFF_RATIO;
+        this.limit = initial;
+
+        checkArgument(this.minLimit > 0, "`minLimit` must be positive");
+        checkArgument(this.maxLimit >= this.minLimit, "`maxLimit` must not be less than `minLimit`");
+        checkArgument(initial >= this.minLimit && initial <= this.maxLimit,
+                "`initialLimit` must be between `minLimit` and `maxLimit`");
+        checkArgument(this.maxQueueLength >= 0, "`maxQueueLength` must not be negative");
+        checkArgument(this.latencyThresholdNanos > 0, "`latencyThreshold` must be positive");
+        checkArgument(this.backoffRatio > 0 && this.backoffRatio < 1, "`backoffRatio` must be between 0 and 1");
+    }
+
+    /**
+     * @return the current number of executions allowed to run concurrently
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the number of executions currently running
+     */
+    public synchronized int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * @return the number of executions currently waiting for a free slot
+     */
+    public synchronized int getQueueLength() {
+        return queue.size();
+    }
+
+    @Override
+    public Flux<ProcessResult> execute(List<String> args) {
+        requireNonNull(args);
+
+        return Flux.create(sink -> {
+            Execution execution = new Execution(args, sink);
+            sink.onCancel(execution::cancel);
+
+            boolean start = false;
+            RejectedExecutionException rejection = null;
+            synchronized (this) {
+                if (inFlightCount < (int) limit) {
+                    inFlightCount++;
+                    start = true;
+                } else if (queue.size() < maxQueueLength) {
+                    queue.addLast(execution);
+                } else {
+                    rejection = new RejectedExecutionException("Concurrency limit of " + (int) limit
+                            + " reached and " + queue.size() + " executions queued");
+                }
+            }
+
+            if (rejection != null) {
+                sink.error(rejection);
+            } else if (start) {
+                execution.start();
+            }
+        });
+    }
+
+    private void release(long latencyNanos, boolean dropped, boolean adjustLimit) {
+        List<Execution> executionsToStart = new ArrayList<>();
+
+        synchronized (this) {
+            if (adjustLimit) {
+                if (dropped || latencyNanos > latencyThresholdNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                } else if (inFlightCount * 2 >= (int) limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            inFlightCount--;
+
+            while (inFlightCount < (int) limit && !queue.isEmpty()) {
+                inFlightCount++;
+                executionsToStart.add(queue.pollFirst());
+            }
+        }
+
+        executionsToStart.forEach(Execution::start);
+    }
+
+    private synchronized boolean removeFromQueue(Execution execution) {
+        return queue.remove(execution);
+    }
+
+    private final class Execution extends SlotExecution {
+        private Execution(List<String> args, FluxSink<ProcessResult> sink) {
+            super(delegate, args, sink);
+        }
+
+        @Override
+        void released(long runNanos, boolean dropped) {
+            release(runNanos, dropped, true);
+        }
+
+        @Override
+        void abandoned() {
+            release(0L, false, false);
+        }
+
+        @Override
+        void dequeue() {
+            removeFromQueue(this);
+        }
+    }
+}
@@ -4,10 +4,6 @@ import lombok.Builder;
 import lombok.Getter;
 import org.apache.commons.codec.binary.Hex;
 
-import java.util.Arrays;
-
-import static com.google.common.base.Preconditions.checkState;
-
 @Getter
 @Builder(builderClassName = "Builder")
 public class PermissionsImpl implements Cryptotool.Permissions {
@@ -133,25 +129,26 @@ public class PermissionsImpl implements Cryptotool.Permissions {
     private byte[] asByteArray() {
         return new byte[]{
                 PERMISSIONS_IDENTIFIER_IN_HEX,
-                asByte(new Boolean[]{false, false, false, false, false, resetWrite, certificatesWrite, certificatesRead}),
-                asByte(new Boolean[]{trunkAccessRead, engineWrite, engineRead, doorLocksWrite, doorLocksRead, diagnosticsRead, vehicleStatusRead, capabilitiesRead}),
-                asByte(new Boolean[]{lightsRead, climateWrite, climateRead, chargeWrite, chargeRead, wakeUpWrite, trunkAccessLimited, trunkAccessWrite}),
-                asByte(new Boolean[]{headunitWrite, honkHornFlashLightsWrite, windscreenWrite, windscreenRead, rooftopControlWrite, rooftopControlRead, windowsWrite, lightsWrite}),
-                asByte(new Boolean[]{driverFatigueRead, heartRateWrite, fuelingWrite, valetModeActive, valetModeWrite, valetModeRead, remoteControlWrite, remoteControlRead}),
-                asByte(new Boolean[]{headunitRead, keyfobPositionRead, parkingTicketWrite, parkingTicketRead, theftAlarmWrite, theftAlarmRead, naviDestinationWrite, vehicleLocationRead}),
+                (byte) (bit(certificatesRead, 0) | bit(certificatesWrite, 1) | bit(resetWrite, 2)),
+                (byte) (bit(capabilitiesRead, 0) | bit(vehicleStatusRead, 1) | bit(diagnosticsRead, 2)
+                        | bit(doorLocksRead, 3) | bit(doorLocksWrite, 4) | bit(engineRead, 5)
+                        | bit(engineWrite, 6) | bit(trunkAccessRead, 7)),
+                (byte) (bit(trunkAccessWrite, 0) | bit(trunkAccessLimited, 1) | bit(wakeUpWrite, 2)
+                        | bit(chargeRead, 3) | bit(chargeWrite, 4) | bit(climateRead, 5)
+                        | bit(climateWrite, 6) | bit(lightsRead, 7)),
+                (byte) (bit(lightsWrite, 0) | bit(windowsWrite, 1) | bit(rooftopControlRead, 2)
+                        | bit(rooftopControlWrite, 3) | bit(windscreenRead, 4) | bit(windscreenWrite, 5)
+                        | bit(honkHornFlashLightsWrite, 6) | bit(headunitWrite, 7)),
+                (byte) (bit(remoteControlRead, 0) | bit(remoteControlWrite, 1) | bit(valetModeRead, 2)
+                        | bit(valetModeWrite, 3) | bit(valetModeActive, 4) | bit(fuelingWrite, 5)
+                        | bit(heartRateWrite, 6) | bit(driverFatigueRead, 7)),
+                (byte) (bit(vehicleLocationRead, 0) | bit(naviDestinationWrite, 1) | bit(theftAlarmRead, 2)
+                        | bit(theftAlarmWrite, 3) | bit(parkingTicketRead, 4) | bit(parkingTicketWrite, 5)
+                        | bit(keyfobPositionRead, 6) | bit(headunitRead, 7)),
         };
     }
 
-    private static byte asByte(Boolean[] bool) {
-        checkState(bool.length == 8);
-
-        return (byte) ((bool[0] ? 1 << 7 : 0) +
-                (bool[1] ? 1 << 6 : 0) +
-                (bool[2] ? 1 << 5 : 0) +
-                (bool[3] ? 1 << 4 : 0) +
-                (bool[4] ? 1 << 3 : 0) +
-                (bool[5] ? 1 << 2 : 0) +
-                (bool[6] ? 1 << 1 : 0) +
-                (bool[7] ? 1 : 0));
+    private static int bit(boolean value, int position) {
+        return value ? 1 << position : 0;
     }
 }
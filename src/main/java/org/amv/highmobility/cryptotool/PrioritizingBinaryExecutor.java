@@ -0,0 +1,310 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.Getter;
+import lombok.Singular;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link BinaryExecutor} scheduling executions of its delegate in named priority lanes,
+ * e.g. {@code interactive} and {@code bulk}.
+ * <p>
+ * At most {@code maxConcurrentExecutions} executions run at the same time. Each lane may reserve
+ * slots that executions of other lanes cannot use, so bulk work never occupies all slots.
+ * Free slots are handed to the waiting lanes in proportion to their weights (stride scheduling).
+ * <p>
+ * The lane of an execution is read from the subscriber context with the key
+ * {@link #PRIORITY_CLASS_KEY}, see {@link #priorityClass(String)}. Executions without or with an
+ * unknown priority class are scheduled in the lane named {@link #DEFAULT_PRIORITY_CLASS}, which
+ * is created with weight 1 and no reserved slots unless configured explicitly.
+ * <p>
+ * Behind a {@link CoalescingBinaryExecutor}, a shared execution runs in the lane of its first
+ * subscriber - later subscribers joining it do not change its lane.
+ */
+public class PrioritizingBinaryExecutor implements BinaryExecutor {
+    public static final String PRIORITY_CLASS_KEY = PrioritizingBinaryExecutor.class.getName() + ".priorityClass";
+    public static final String DEFAULT_PRIORITY_CLASS = "default";
+
+    private static final int DEFAULT_MAX_QUEUE_LENGTH = 256;
+
+    /**
+     * Sets the priority class of all executions upstream, e.g.
+     * {@code cryptotool.verifySignature(...).subscriberContext(priorityClass("interactive"))}.
+     */
+    public static Function<Context, Context> priorityClass(String name) {
+        requireNonNull(name, "`name` must not be null");
+        return context -> context.put(PRIORITY_CLASS_KEY, name);
+    }
+
+    private static int defaultMaxConcurrentExecutions() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    private final BinaryExecutor delegate;
+    private final int maxConcurrentExecutions;
+    private final int maxQueueLength;
+    private final CryptotoolMetrics metrics;
+    private final Map<String, LaneState> lanes;
+
+    private int inFlightCount;
+    private double virtualTime;
+
+    /**
+     * @param delegate                the executor spawning the processes
+     * @param maxConcurrentExecutions the number of executions running at the same time across all lanes;
+     *                                defaults to the number of processors
+     * @param maxQueueLength          the maximum number of executions waiting per lane; defaults to 256
+     * @param lanes                   the priority lanes
+     * @param metrics                 the callback recording wait and run times per lane
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    public PrioritizingBinaryExecutor(BinaryExecutor delegate,
+                                      Integer maxConcurrentExecutions,
+                                      Integer maxQueueLength,
+                                      @Singular List<Lane> lanes,
+                                      CryptotoolMetrics metrics) {
+        requireNonNull(delegate, "`delegate` must not be null");
+        requireNonNull(lanes, "`lanes` must not be null");
+
+        this.delegate = delegate;
+        this.maxConcurrentExecutions = maxConcurrentExecutions != null ?
+                maxConcurrentExecutions : defaultMaxConcurrentExecutions();
+        this.maxQueueLength = maxQueueLength != null ? maxQueueLength : DEFAULT_MAX_QUEUE_LENGTH;
+        this.metrics = metrics != null ? metrics : CryptotoolMetrics.NOOP;
+
+        checkArgument(this.maxConcurrentExecutions > 0, "`maxConcurrentExecutions` must be positive");
+        checkArgument(this.maxQueueLength >= 0, "`maxQueueLength` must not be negative");
+
+        Map<String, LaneState> laneStates = new LinkedHashMap<>();
+        for (Lane lane : lanes) {
+            checkArgument(!laneStates.containsKey(lane.getName()), "`lanes` must have unique names");
+            laneStates.put(lane.getName(), new LaneState(lane));
+        }
+        if (!laneStates.containsKey(DEFAULT_PRIORITY_CLASS)) {
+            laneStates.put(DEFAULT_PRIORITY_CLASS, new LaneState(Lane.builder()
+                    .name(DEFAULT_PRIORITY_CLASS)
+                    .build()));
+        }
+
+        int reservedSlots = laneStates.values().stream()
+                .mapToInt(laneState -> laneState.lane.getReservedSlots())
+                .sum();
+        checkArgument(reservedSlots <= this.maxConcurrentExecutions,
+                "reserved slots of all lanes must not exceed `maxConcurrentExecutions`");
+
+        this.lanes = ImmutableMap.copyOf(laneStates);
+    }
+
+    /**
+     * @return the number of executions of the given lane currently running
+     */
+    public synchronized int getInFlightCount(String lane) {
+        LaneState laneState = lanes.get(lane);
+        return laneState != null ? laneState.inFlightCount : 0;
+    }
+
+    /**
+     * @return the number of executions of the given lane currently waiting for a free slot
+     */
+    public synchronized int getQueueLength(String lane) {
+        LaneState laneState = lanes.get(lane);
+        return laneState != null ? laneState.queue.size() : 0;
+    }
+
+    @Override
+    public Flux<ProcessResult> execute(List<String> args) {
+        requireNonNull(args);
+
+        return Flux.create(sink -> {
+            String priorityClass = sink.currentContext().getOrDefault(PRIORITY_CLASS_KEY, DEFAULT_PRIORITY_CLASS);
+            LaneState laneState = lanes.getOrDefault(priorityClass, lanes.get(DEFAULT_PRIORITY_CLASS));
+
+            Execution execution = new Execution(laneState, args, sink);
+            sink.onCancel(execution::cancel);
+
+            boolean start = false;
+            RejectedExecutionException rejection = null;
+            synchronized (this) {
+                if (laneState.queue.isEmpty() && laneState.inFlightCount == 0) {
+                    activate(laneState);
+                }
+
+                if (laneState.queue.isEmpty() && canStart(laneState)) {
+                    take(laneState);
+                    start = true;
+                } else if (laneState.queue.size() < maxQueueLength) {
+                    laneState.queue.addLast(execution);
+                } else {
+                    rejection = new RejectedExecutionException("Queue of lane `" + laneState.lane.getName()
+                            + "` is full");
+                }
+            }
+
+            if (rejection != null) {
+                sink.error(rejection);
+            } else if (start) {
+                execution.start();
+            }
+        });
+    }
+
+    /**
+     * A lane can start an execution if it has unused reserved slots or if there are slots
+     * left that are not reserved by other lanes.
+     */
+    private boolean canStart(LaneState laneState) {
+        if (inFlightCount >= maxConcurrentExecutions) {
+            return false;
+        }
+        if (laneState.inFlightCount < laneState.lane.getReservedSlots()) {
+            return true;
+        }
+
+        int unusedReservedSlotsOfOtherLanes = 0;
+        for (LaneState other : lanes.values()) {
+            if (other != laneState) {
+                unusedReservedSlotsOfOtherLanes += Math.max(0, other.lane.getReservedSlots() - other.inFlightCount);
+            }
+        }
+        return inFlightCount + unusedReservedSlotsOfOtherLanes < maxConcurrentExecutions;
+    }
+
+    /**
+     * A lane that has been idle must not catch up on the slots it did not use - its pass value
+     * is advanced to the virtual time, i.e. the pass value of the latest execution started.
+     */
+    private void activate(LaneState laneState) {
+        laneState.pass = Math.max(laneState.pass, virtualTime);
+    }
+
+    private void take(LaneState laneState) {
+        virtualTime = Math.max(virtualTime, laneState.pass);
+        inFlightCount++;
+        laneState.inFlightCount++;
+        laneState.pass += 1.0d / laneState.lane.getWeight();
+    }
+
+    private void release(LaneState laneState) {
+        List<Execution> executionsToStart = new ArrayList<>();
+
+        synchronized (this) {
+            inFlightCount--;
+            laneState.inFlightCount--;
+
+            Execution next;
+            while ((next = pollNext()) != null) {
+                executionsToStart.add(next);
+            }
+        }
+
+        executionsToStart.forEach(Execution::start);
+    }
+
+    /**
+     * Picks the waiting execution of the lane with the lowest pass value among all lanes
+     * allowed to start an execution.
+     */
+    private Execution pollNext() {
+        LaneState next = null;
+        for (LaneState laneState : lanes.values()) {
+            if (!laneState.queue.isEmpty() && canStart(laneState) && (next == null || laneState.pass < next.pass)) {
+                next = laneState;
+            }
+        }
+        if (next == null) {
+            return null;
+        }
+
+        take(next);
+        return next.queue.pollFirst();
+    }
+
+    private synchronized boolean removeFromQueue(Execution execution) {
+        return execution.laneState.queue.remove(execution);
+    }
+
+    @Getter
+    @lombok.Builder(builderClassName = "Builder")
+    public static class Lane {
+        private final String name;
+
+        /**
+         * The share of free slots relative to other lanes; defaults to 1.
+         */
+        @lombok.Builder.Default
+        private final int weight = 1;
+
+        /**
+         * The number of slots executions of other lanes cannot use; defaults to 0.
+         */
+        @lombok.Builder.Default
+        private final int reservedSlots = 0;
+
+        Lane(String name, int weight, int reservedSlots) {
+            requireNonNull(name, "`name` must not be null");
+            checkArgument(weight > 0, "`weight` must be positive");
+            checkArgument(reservedSlots >= 0, "`reservedSlots` must not be negative");
+
+            this.name = name;
+            this.weight = weight;
+            this.reservedSlots = reservedSlots;
+        }
+    }
+
+    private static class LaneState {
+        private final Lane lane;
+        private final Deque<Execution> queue = new ArrayDeque<>();
+        private int inFlightCount;
+        private double pass;
+
+        LaneState(Lane lane) {
+            this.lane = lane;
+        }
+    }
+
+    private final class Execution extends SlotExecution {
+        private final LaneState laneState;
+        private final long createdNanos = System.nanoTime();
+
+        private Execution(LaneState laneState, List<String> args, FluxSink<ProcessResult> sink) {
+            super(delegate, args, sink);
+            this.laneState = laneState;
+        }
+
+        @Override
+        void started() {
+            metrics.recordLaneWaitTime(laneState.lane.getName(), Duration.ofNanos(System.nanoTime() - createdNanos));
+        }
+
+        @Override
+        void released(long runNanos, boolean dropped) {
+            metrics.recordLaneRunTime(laneState.lane.getName(), Duration.ofNanos(runNanos));
+            release(laneState);
+        }
+
+        @Override
+        void abandoned() {
+            release(laneState);
+        }
+
+        @Override
+        void dequeue() {
+            removeFromQueue(this);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.amv.highmobility.cryptotool;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event spanning the spawn of the binary until its output has been read.
+ * Only referenced via {@link JfrEvents}.
+ */
+@Name("org.amv.highmobility.cryptotool.ProcessExecution")
+@Label("Cryptotool Process Execution")
+@Description("Spawning the binary and reading its output")
+@Category("Cryptotool")
+@StackTrace(false)
+@Enabled(false)
+class ProcessExecutionEvent extends Event {
+
+    static ProcessExecutionEvent beginIfEnabled() {
+        ProcessExecutionEvent event = new ProcessExecutionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Label("Command")
+    String command;
+
+    @Label("Arguments Size")
+    @DataAmount
+    int argumentsSize;
+
+    @Label("Process Id")
+    @Description("The process id or -1 if not available (Java 8)")
+    long pid;
+
+    @Label("Exit Status")
+    @Description("The exit status or -1 if the process did not exit normally")
+    int exitStatus;
+
+    @Label("Spawn Time")
+    @Timespan
+    long spawnTime;
+
+    @Label("Wait Time")
+    @Description("The time from spawning the process until it exited")
+    @Timespan
+    long waitTime;
+
+    @Label("Drain Time")
+    @Description("The time spent waiting for stderr to be drained after the process exited")
+    @Timespan
+    long drainTime;
+
+    @Label("Cancelled")
+    @Description("Whether the execution has been cancelled, e.g. on timeout")
+    boolean cancelled;
+}
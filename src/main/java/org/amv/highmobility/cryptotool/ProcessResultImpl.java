@@ -1,6 +1,6 @@
 package org.amv.highmobility.cryptotool;
 
-import lombok.Builder;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import org.apache.commons.lang3.StringUtils;
@@ -12,33 +12,42 @@ import java.util.function.Predicate;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
 @Getter
-@Builder(builderClassName = "Builder")
 public class ProcessResultImpl implements ProcessResult {
-    @NonNull
+    @Getter(AccessLevel.NONE)
     private List<String> errors;
-    @NonNull
     private List<String> output;
     private int status;
 
+    /**
+     * Filtered lines are computed once as commands usually access them more than once.
+     */
+    @Getter(AccessLevel.NONE)
+    private List<String> stdoutLines;
+    @Getter(AccessLevel.NONE)
+    private List<String> stderrLines;
+
+    @lombok.Builder(builderClassName = "Builder")
+    ProcessResultImpl(@NonNull List<String> errors, @NonNull List<String> output, int status) {
+        this.errors = errors;
+        this.output = output;
+        this.status = status;
+        this.stdoutLines = filterStdoutLines(output);
+        this.stderrLines = filterStderrLines(errors);
+    }
+
     @Override
     public boolean hasErrors() {
-        return !getErrors().isEmpty();
+        return !stderrLines.isEmpty();
     }
 
     @Override
     public List<String> getStdoutLines() {
-        Predicate<String> isNewLine = line -> "\n".equals(line) || System.lineSeparator().equals(line);
-        Predicate<String> isEmptyLine = StringUtils::isBlank;
-
-        return getOutput().stream()
-                .filter(isEmptyLine.negate())
-                .filter(isNewLine.negate())
-                .collect(toImmutableList());
+        return stdoutLines;
     }
 
     @Override
     public List<String> getStderrLines() {
-        return getErrors();
+        return stderrLines;
     }
 
     @Override
@@ -49,7 +58,17 @@ public class ProcessResultImpl implements ProcessResult {
                 .map(IllegalStateException::new);
     }
 
-    private List<String> getErrors() {
+    private static List<String> filterStdoutLines(List<String> output) {
+        Predicate<String> isNewLine = line -> "\n".equals(line) || System.lineSeparator().equals(line);
+        Predicate<String> isEmptyLine = StringUtils::isBlank;
+
+        return output.stream()
+                .filter(isEmptyLine.negate())
+                .filter(isNewLine.negate())
+                .collect(toImmutableList());
+    }
+
+    private static List<String> filterStderrLines(List<String> errors) {
         return errors.stream()
                 .filter(StringUtils::isNotBlank)
                 .filter(val -> !val.trim().toLowerCase().startsWith("debug"))
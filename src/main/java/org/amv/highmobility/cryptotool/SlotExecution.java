@@ -0,0 +1,101 @@
+package org.amv.highmobility.cryptotool;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.FluxSink;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An execution of a delegate {@link BinaryExecutor} that waits in the queue of an executor with a
+ * limited number of slots, e.g. {@link LimitingBinaryExecutor} or {@link PrioritizingBinaryExecutor}.
+ * <p>
+ * The subclass is notified exactly once per taken slot: {@link #released(long, boolean)} after the
+ * delegate terminated or was cancelled - before the terminal signal is propagated downstream - or
+ * {@link #abandoned()} if the execution was cancelled before it could be started. Cancelling an
+ * execution that is still queued calls {@link #dequeue()} instead.
+ * <p>
+ * The subscriber context is propagated to the delegate, so decorators further down can read it.
+ */
+abstract class SlotExecution {
+    private final BinaryExecutor delegate;
+    private final List<String> args;
+    private final FluxSink<ProcessResult> sink;
+    private boolean cancelled;
+    private Disposable subscription;
+
+    SlotExecution(BinaryExecutor delegate, List<String> args, FluxSink<ProcessResult> sink) {
+        this.delegate = requireNonNull(delegate);
+        this.args = requireNonNull(args);
+        this.sink = requireNonNull(sink);
+    }
+
+    /**
+     * Called after the execution has been started.
+     */
+    void started() {
+    }
+
+    /**
+     * Releases the slot of a started execution.
+     *
+     * @param runNanos the time from starting the execution until it terminated
+     * @param dropped  whether the execution failed or has been cancelled
+     */
+    abstract void released(long runNanos, boolean dropped);
+
+    /**
+     * Releases the slot taken for an execution cancelled before it started.
+     */
+    abstract void abandoned();
+
+    /**
+     * Removes an execution cancelled while waiting for a slot from the queue.
+     */
+    abstract void dequeue();
+
+    /**
+     * Must only be called after a slot has been taken for this execution.
+     */
+    final synchronized void start() {
+        if (cancelled) {
+            abandoned();
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Consumer<Boolean> releaseOnce = dropped -> {
+            if (released.compareAndSet(false, true)) {
+                released(System.nanoTime() - startNanos, dropped);
+            }
+        };
+
+        started();
+
+        // the slot is released before the terminal signal is propagated
+        subscription = delegate.execute(args)
+                .doOnComplete(() -> releaseOnce.accept(false))
+                .doOnError(e -> releaseOnce.accept(true))
+                .doOnCancel(() -> releaseOnce.accept(true))
+                .subscriberContext(sink.currentContext())
+                .subscribe(sink::next, sink::error, sink::complete);
+    }
+
+    final void cancel() {
+        Disposable subscriptionToCancel;
+        synchronized (this) {
+            cancelled = true;
+            subscriptionToCancel = subscription;
+        }
+
+        if (subscriptionToCancel != null) {
+            subscriptionToCancel.dispose();
+        } else {
+            dequeue();
+        }
+    }
+}
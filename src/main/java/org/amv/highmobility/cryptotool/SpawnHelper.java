@@ -0,0 +1,212 @@
+package org.amv.highmobility.cryptotool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The main class of the helper process started by {@link SpawnHelperBinaryExecutor}.
+ * <p>
+ * Requests are read from stdin and responses are written to stdout, both framed with
+ * {@link DataInputStream}/{@link DataOutputStream}. Processes are spawned concurrently and responses
+ * are written in order of completion, identified by the id of the request. The number of processes
+ * running at the same time is not limited - the parent process is responsible for bounding it. The helper exits when
+ * stdin is closed, destroying all processes still running.
+ * <p>
+ * This class must only depend on the JDK as the helper is started with a minimal classpath.
+ */
+final class SpawnHelper {
+    static final byte EXECUTE_REQUEST = 1;
+    static final byte CANCEL_REQUEST = 2;
+    static final byte RESULT_RESPONSE = 1;
+    static final byte FAILURE_RESPONSE = 2;
+
+    private final DataOutputStream out;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, Request> requests = new ConcurrentHashMap<>();
+
+    SpawnHelper(DataOutputStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+
+        // stdout is reserved for responses
+        System.setOut(System.err);
+
+        new SpawnHelper(out).run(in);
+        System.exit(0);
+    }
+
+    /**
+     * @return the number of executions in flight
+     */
+    int getRequestCount() {
+        return requests.size();
+    }
+
+    void run(DataInputStream in) throws IOException {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                int id = in.readInt();
+                if (type == EXECUTE_REQUEST) {
+                    List<String> command = readStrings(in);
+                    // registered before reading the next request, so a cancel request always finds it
+                    Request request = new Request();
+                    requests.put(id, request);
+                    executor.execute(() -> execute(id, request, command));
+                } else if (type == CANCEL_REQUEST) {
+                    cancel(id);
+                } else {
+                    throw new IOException("Unknown request type " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // the parent process closed stdin
+        } finally {
+            requests.values().forEach(Request::cancel);
+        }
+    }
+
+    private void execute(int id, Request request, List<String> command) {
+        try {
+            Process process = new ProcessBuilder(command).start();
+            request.started(process);
+
+            process.getOutputStream().close();
+            Future<List<String>> stderr = executor.submit(() -> readLines(process.getErrorStream()));
+            List<String> stdout = readLines(process.getInputStream());
+            int status = process.waitFor();
+            List<String> errors = stderr.get();
+
+            // removed before responding, so cancel requests racing the response are ignored
+            requests.remove(id);
+            writeResult(id, status, stdout, errors);
+        } catch (Exception e) {
+            requests.remove(id);
+            writeFailure(id, String.valueOf(e));
+        }
+    }
+
+    /**
+     * Cancel requests for requests that already finished are ignored.
+     */
+    private void cancel(int id) {
+        Request request = requests.get(id);
+        if (request != null) {
+            request.cancel();
+        }
+    }
+
+    private void writeResult(int id, int status, List<String> stdout, List<String> stderr) {
+        synchronized (out) {
+            try {
+                out.writeByte(RESULT_RESPONSE);
+                out.writeInt(id);
+                out.writeInt(status);
+                writeStrings(out, stdout);
+                writeStrings(out, stderr);
+                out.flush();
+            } catch (IOException e) {
+                // the parent process is gone
+                System.exit(1);
+            }
+        }
+    }
+
+    private void writeFailure(int id, String message) {
+        synchronized (out) {
+            try {
+                out.writeByte(FAILURE_RESPONSE);
+                out.writeInt(id);
+                writeString(out, message);
+                out.flush();
+            } catch (IOException e) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * The state of an execution in flight. Guarded by its monitor so that a cancel racing the
+     * start of the process always destroys it.
+     */
+    private static final class Request {
+        private Process process;
+        private boolean cancelled;
+
+        synchronized void started(Process process) {
+            this.process = process;
+            if (cancelled) {
+                process.destroyForcibly();
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static List<String> readLines(InputStream in) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+
+    static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
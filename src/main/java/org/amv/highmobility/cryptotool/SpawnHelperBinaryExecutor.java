@@ -0,0 +1,334 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.collect.ImmutableList;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link BinaryExecutor} that does not spawn processes itself but delegates spawning to a small,
+ * long-lived helper JVM. Spawning a process from a JVM with a large heap gets slower with the size
+ * of its address space - the helper has a tiny heap, so spawning stays cheap.
+ * <p>
+ * The helper is started on creation and restarted on the next execution if it terminated.
+ * Cancelling an execution (e.g. on timeout) destroys the process spawned by the helper.
+ * Closing this executor terminates the helper and all processes it is running.
+ * <p>
+ * Requests are written to the helper - and the helper is restarted - on a dedicated thread, never on
+ * the subscribing thread. Results are delivered on {@code resultScheduler}, so downstream operators
+ * do not hold up reading the responses of other executions.
+ * <p>
+ * Neither this executor nor the helper limit the number of processes running at the same time.
+ * Wrap it in a {@link LimitingBinaryExecutor} or {@link PrioritizingBinaryExecutor} to bound them.
+ */
+@Slf4j
+public class SpawnHelperBinaryExecutor implements BinaryExecutor, AutoCloseable {
+    private static final List<String> DEFAULT_HELPER_JVM_OPTIONS = ImmutableList.of(
+            "-Xmx32m", "-Xss256k", "-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1");
+    private static final Duration HELPER_EXIT_TIMEOUT = Duration.ofSeconds(1L);
+
+    private final Binary binary;
+    private final List<String> helperCommand;
+    private final File workingDirectory;
+    private final AtomicInteger requestIds = new AtomicInteger();
+    private final ConcurrentMap<Integer, MonoSink<ProcessResult>> pendingRequests = new ConcurrentHashMap<>();
+    private final Scheduler writer = Schedulers.newSingle("cryptotool-spawn-helper-writer", true);
+    private final Scheduler resultScheduler;
+
+    private Helper helper;
+    private boolean closed;
+
+    /**
+     * @param binary           the binary to execute
+     * @param workingDirectory the working directory of the helper and the processes it spawns
+     * @param javaExecutable   the java executable used to start the helper;
+     *                         defaults to the executable of the running JVM
+     * @param helperClasspath  the classpath of the helper; defaults to the jar containing this class
+     * @param helperJvmOptions the options of the helper JVM; defaults to a small heap and serial gc
+     * @param resultScheduler  the scheduler results are delivered on; defaults to {@link Schedulers#elastic()}
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    public SpawnHelperBinaryExecutor(Binary binary,
+                                     File workingDirectory,
+                                     File javaExecutable,
+                                     String helperClasspath,
+                                     List<String> helperJvmOptions,
+                                     Scheduler resultScheduler) throws IOException {
+        requireNonNull(binary, "`binary` must not be null");
+        requireNonNull(workingDirectory, "`workingDirectory` must not be null");
+        checkArgument(workingDirectory.exists(), "`workingDirectory` does not exist");
+
+        this.binary = binary;
+        this.workingDirectory = workingDirectory;
+        this.resultScheduler = resultScheduler != null ? resultScheduler : Schedulers.elastic();
+        this.helperCommand = ImmutableList.<String>builder()
+                .add((javaExecutable != null ? javaExecutable : defaultJavaExecutable()).getAbsolutePath())
+                .addAll(helperJvmOptions != null ? helperJvmOptions : DEFAULT_HELPER_JVM_OPTIONS)
+                .add("-cp")
+                .add(helperClasspath != null ? helperClasspath : defaultHelperClasspath())
+                .add(SpawnHelper.class.getName())
+                .build();
+
+        synchronized (this) {
+            this.helper = startHelper();
+        }
+    }
+
+    @Override
+    public Flux<ProcessResult> execute(List<String> args) {
+        requireNonNull(args);
+
+        List<String> command = ImmutableList.<String>builder()
+                .add(binary.getFile().getAbsolutePath())
+                .addAll(args)
+                .build();
+
+        return Mono.<ProcessResult>create(sink -> {
+            int id = requestIds.incrementAndGet();
+            pendingRequests.put(id, sink);
+
+            sink.onCancel(() -> {
+                if (pendingRequests.remove(id) != null) {
+                    scheduleOnWriter(() -> sendCancelRequest(id));
+                }
+            });
+
+            try {
+                writer.schedule(() -> sendExecuteRequest(id, command));
+            } catch (RejectedExecutionException e) {
+                failPendingRequest(id, new IllegalStateException("Executor has been closed", e));
+            }
+        }).publishOn(resultScheduler).flux();
+    }
+
+    /**
+     * Terminates the helper. Pending executions fail with an {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        Helper helperToStop;
+        synchronized (this) {
+            closed = true;
+            helperToStop = helper;
+        }
+
+        IllegalStateException cause = new IllegalStateException("Executor has been closed");
+        if (helperToStop != null) {
+            stopHelper(helperToStop, cause);
+        }
+
+        // executions not sent to the helper yet are failed as well
+        writer.dispose();
+        new ArrayList<>(pendingRequests.keySet()).forEach(id -> failPendingRequest(id, cause));
+    }
+
+    private void scheduleOnWriter(Runnable task) {
+        try {
+            writer.schedule(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Ignoring request after close: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sinks are completed after releasing the monitor.
+     */
+    private void sendExecuteRequest(int id, List<String> command) {
+        Helper failedHelper = null;
+        Exception failure = null;
+        synchronized (this) {
+            if (!pendingRequests.containsKey(id)) {
+                // cancelled before it has been sent
+                return;
+            }
+
+            if (closed) {
+                failure = new IllegalStateException("Executor has been closed");
+            } else {
+                try {
+                    if (helper == null) {
+                        helper = startHelper();
+                    }
+                    helper.requestIds.add(id);
+                    helper.out.writeByte(SpawnHelper.EXECUTE_REQUEST);
+                    helper.out.writeInt(id);
+                    SpawnHelper.writeStrings(helper.out, command);
+                    helper.out.flush();
+                    return;
+                } catch (IOException e) {
+                    failedHelper = helper;
+                    failure = e;
+                }
+            }
+        }
+
+        if (failedHelper != null) {
+            stopHelper(failedHelper, new IllegalStateException("Spawn helper terminated unexpectedly", failure));
+        } else {
+            failPendingRequest(id, failure);
+        }
+    }
+
+    private void sendCancelRequest(int id) {
+        Helper failedHelper;
+        IOException failure;
+        synchronized (this) {
+            if (helper == null) {
+                return;
+            }
+
+            try {
+                helper.out.writeByte(SpawnHelper.CANCEL_REQUEST);
+                helper.out.writeInt(id);
+                helper.out.flush();
+                return;
+            } catch (IOException e) {
+                failedHelper = helper;
+                failure = e;
+            }
+        }
+
+        stopHelper(failedHelper, new IllegalStateException("Spawn helper terminated unexpectedly", failure));
+    }
+
+    private void failPendingRequest(int id, Exception cause) {
+        MonoSink<ProcessResult> sink = pendingRequests.remove(id);
+        if (sink != null) {
+            sink.error(cause);
+        }
+    }
+
+    private Helper startHelper() throws IOException {
+        Process process = new ProcessBuilder(helperCommand)
+                .directory(workingDirectory)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        Helper newHelper = new Helper(process);
+
+        Thread reader = new Thread(() -> readResponses(newHelper), "cryptotool-spawn-helper-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Started spawn helper: {}", String.join(" ", helperCommand));
+        }
+
+        return newHelper;
+    }
+
+    /**
+     * Fails all pending executions sent to the given helper. Executions not sent yet are sent to
+     * the next helper.
+     */
+    private void stopHelper(Helper stoppedHelper, Exception cause) {
+        synchronized (this) {
+            if (helper == stoppedHelper) {
+                helper = null;
+            }
+            if (stoppedHelper.stopped) {
+                return;
+            }
+            stoppedHelper.stopped = true;
+        }
+
+        try {
+            stoppedHelper.out.close();
+        } catch (IOException e) {
+            log.debug("Error while closing stdin of spawn helper: {}", e.getMessage());
+        }
+        // closing stdin lets the helper destroy the processes it is running before it exits
+        try {
+            if (!stoppedHelper.process.waitFor(HELPER_EXIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                stoppedHelper.process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stoppedHelper.process.destroyForcibly();
+        }
+
+        stoppedHelper.requestIds.forEach(id -> failPendingRequest(id, cause));
+    }
+
+    private void readResponses(Helper readHelper) {
+        try {
+            while (true) {
+                byte type = readHelper.in.readByte();
+                int id = readHelper.in.readInt();
+
+                if (type == SpawnHelper.RESULT_RESPONSE) {
+                    ProcessResult processResult = ProcessResultImpl.builder()
+                            .status(readHelper.in.readInt())
+                            .output(SpawnHelper.readStrings(readHelper.in))
+                            .errors(SpawnHelper.readStrings(readHelper.in))
+                            .build();
+
+                    readHelper.requestIds.remove(id);
+                    MonoSink<ProcessResult> sink = pendingRequests.remove(id);
+                    if (sink != null) {
+                        sink.success(processResult);
+                    }
+                } else if (type == SpawnHelper.FAILURE_RESPONSE) {
+                    String message = SpawnHelper.readString(readHelper.in);
+
+                    readHelper.requestIds.remove(id);
+                    failPendingRequest(id, new IOException("Cannot execute binary: " + message));
+                } else {
+                    throw new IOException("Unknown response type " + type);
+                }
+            }
+        } catch (IOException e) {
+            stopHelper(readHelper, new IllegalStateException("Spawn helper terminated unexpectedly", e));
+        }
+    }
+
+    private static File defaultJavaExecutable() {
+        return new File(new File(System.getProperty("java.home"), "bin"), "java");
+    }
+
+    private static String defaultHelperClasspath() {
+        try {
+            return new File(SpawnHelper.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .getAbsolutePath();
+        } catch (URISyntaxException | RuntimeException e) {
+            throw new IllegalStateException("Cannot determine classpath of spawn helper", e);
+        }
+    }
+
+    private static class Helper {
+        private final Process process;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+        private final Set<Integer> requestIds = ConcurrentHashMap.newKeySet();
+        private boolean stopped;
+
+        Helper(Process process) {
+            this.process = process;
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+    }
+}
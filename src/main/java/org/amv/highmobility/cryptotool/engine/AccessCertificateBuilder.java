@@ -0,0 +1,97 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An {@link AccessCertificateEngine} serializing access certificates in-process.
+ * <p>
+ * Version 0 has the layout:
+ * <pre>
+ * gaining serial (9 bytes) | gaining public key (64 bytes) | providing serial (9 bytes) |
+ * start date (5 bytes) | end date (5 bytes) | permissions size (1 byte) | permissions
+ * </pre>
+ * Version 1 has the layout:
+ * <pre>
+ * version (1 byte) | issuer (4 bytes) | providing serial (9 bytes) | gaining serial (9 bytes) |
+ * gaining public key (64 bytes) | start date (5 bytes) | end date (5 bytes) |
+ * permissions size (1 byte) | permissions
+ * </pre>
+ * Like the {@code access} command, the certificate is returned unsigned as upper case hex.
+ * Every thread serializes certificates into its own reusable buffer.
+ */
+public class AccessCertificateBuilder implements AccessCertificateEngine {
+    private static final int DATE_LENGTH = 5;
+    private static final int MAX_PERMISSIONS_LENGTH = 16;
+    private static final byte VERSION_1 = 0x01;
+
+    private static final int MAX_CERTIFICATE_LENGTH = 1 + DeviceCertificateBuilder.ISSUER_LENGTH
+            + 2 * DeviceCertificateBuilder.SERIAL_LENGTH + P256.PUBLIC_KEY_LENGTH
+            + 2 * DATE_LENGTH + 1 + MAX_PERMISSIONS_LENGTH;
+
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() ->
+            ByteBuffer.allocate(MAX_CERTIFICATE_LENGTH));
+
+    @Override
+    public Cryptotool.AccessCertificate createAccessCertificate(int version,
+                                                                String issuer,
+                                                                String providingSerial,
+                                                                String gainingSerial,
+                                                                String gainingPublicKey,
+                                                                LocalDateTime startDate,
+                                                                LocalDateTime endDate,
+                                                                String permissions) {
+        checkArgument(version == 0 || version == 1, "`version` has invalid value");
+        checkArgument(version == 0 || !isNullOrEmpty(issuer), "`issuer` must not be empty");
+        checkArgument(!isNullOrEmpty(providingSerial), "`providingSerial` must not be empty");
+        checkArgument(!isNullOrEmpty(gainingSerial), "`gainingSerial` must not be empty");
+        checkArgument(!isNullOrEmpty(gainingPublicKey), "`gainingPublicKey` must not be empty");
+        requireNonNull(startDate, "`startDate` must not be null");
+        requireNonNull(endDate, "`endDate` must not be null");
+        checkArgument(startDate.isBefore(endDate), "`startDate` must not be after `endDate`");
+        checkArgument(!isNullOrEmpty(permissions), "`permissions` must not be empty");
+
+        ByteBuffer buffer = buffers.get();
+        buffer.clear();
+
+        if (version == 0) {
+            EngineHelper.putHex(buffer, gainingSerial, DeviceCertificateBuilder.SERIAL_LENGTH, "gainingSerial");
+            EngineHelper.putHex(buffer, gainingPublicKey, P256.PUBLIC_KEY_LENGTH, "gainingPublicKey");
+            EngineHelper.putHex(buffer, providingSerial, DeviceCertificateBuilder.SERIAL_LENGTH, "providingSerial");
+        } else {
+            buffer.put(VERSION_1);
+            EngineHelper.putHex(buffer, issuer, DeviceCertificateBuilder.ISSUER_LENGTH, "issuer");
+            EngineHelper.putHex(buffer, providingSerial, DeviceCertificateBuilder.SERIAL_LENGTH, "providingSerial");
+            EngineHelper.putHex(buffer, gainingSerial, DeviceCertificateBuilder.SERIAL_LENGTH, "gainingSerial");
+            EngineHelper.putHex(buffer, gainingPublicKey, P256.PUBLIC_KEY_LENGTH, "gainingPublicKey");
+        }
+
+        EngineHelper.putDate(buffer, startDate);
+        EngineHelper.putDate(buffer, endDate);
+        putPermissions(buffer, permissions);
+
+        return CryptotoolImpl.AccessCertificateImpl.builder()
+                .accessCertificate(EngineHelper.encodeHex(buffer))
+                .validityStartDate(startDate)
+                .validityEndDate(endDate)
+                .build();
+    }
+
+    private static void putPermissions(ByteBuffer buffer, String permissions) {
+        int permissionsLength = permissions.length() / 2;
+        if (permissions.length() % 2 != 0 || permissionsLength > MAX_PERMISSIONS_LENGTH) {
+            throw new IllegalStateException(String.format("`permissions` must be a hex string of at most %d bytes",
+                    MAX_PERMISSIONS_LENGTH));
+        }
+
+        buffer.put((byte) permissionsLength);
+        EngineHelper.putHex(buffer, permissions, permissionsLength, "permissions");
+    }
+}
@@ -0,0 +1,21 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creates access certificates without spawning the binary.
+ * Implementations must produce certificates identical to the output of the {@code access} command
+ * with flag {@code -ac0} or {@code -ac1} respectively.
+ */
+public interface AccessCertificateEngine {
+    Cryptotool.AccessCertificate createAccessCertificate(int version,
+                                                         String issuer,
+                                                         String providingSerial,
+                                                         String gainingSerial,
+                                                         String gainingPublicKey,
+                                                         LocalDateTime startDate,
+                                                         LocalDateTime endDate,
+                                                         String permissions);
+}
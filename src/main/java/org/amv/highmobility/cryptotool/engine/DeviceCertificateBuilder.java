@@ -0,0 +1,54 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * A {@link DeviceCertificateEngine} assembling device certificates in-process.
+ * <p>
+ * A device certificate has a fixed layout:
+ * <pre>
+ * issuer (4 bytes) | app id (12 bytes) | serial (9 bytes) | public key (64 bytes)
+ * </pre>
+ * Like the {@code device} command, the certificate is returned unsigned as upper case hex.
+ * Every thread assembles certificates in its own reusable buffer.
+ */
+public class DeviceCertificateBuilder implements DeviceCertificateEngine {
+    static final int ISSUER_LENGTH = 4;
+    static final int APP_ID_LENGTH = 12;
+    static final int SERIAL_LENGTH = 9;
+
+    private static final int CERTIFICATE_LENGTH = ISSUER_LENGTH + APP_ID_LENGTH + SERIAL_LENGTH
+            + P256.PUBLIC_KEY_LENGTH;
+
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() ->
+            ByteBuffer.allocate(CERTIFICATE_LENGTH));
+
+    @Override
+    public Cryptotool.DeviceCertificate createDeviceCertificate(String issuer,
+                                                                String appId,
+                                                                String serial,
+                                                                String publicKey) {
+        checkArgument(!isNullOrEmpty(issuer), "`issuer` must not be empty");
+        checkArgument(!isNullOrEmpty(appId), "`appId` must not be empty");
+        checkArgument(!isNullOrEmpty(serial), "`serial` must not be empty");
+        checkArgument(!isNullOrEmpty(publicKey), "`publicKey` must not be empty");
+
+        ByteBuffer buffer = buffers.get();
+        buffer.clear();
+
+        EngineHelper.putHex(buffer, issuer, ISSUER_LENGTH, "issuer");
+        EngineHelper.putHex(buffer, appId, APP_ID_LENGTH, "appId");
+        EngineHelper.putHex(buffer, serial, SERIAL_LENGTH, "serial");
+        EngineHelper.putHex(buffer, publicKey, P256.PUBLIC_KEY_LENGTH, "publicKey");
+
+        return CryptotoolImpl.DeviceCertificateImpl.builder()
+                .deviceCertificate(EngineHelper.encodeHex(buffer))
+                .build();
+    }
+}
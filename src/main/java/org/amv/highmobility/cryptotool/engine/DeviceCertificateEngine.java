@@ -0,0 +1,11 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+
+/**
+ * Creates device certificates without spawning the binary.
+ * Implementations must produce certificates identical to the output of the {@code device} command.
+ */
+public interface DeviceCertificateEngine {
+    Cryptotool.DeviceCertificate createDeviceCertificate(String issuer, String appId, String serial, String publicKey);
+}
@@ -0,0 +1,139 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Conversions shared by the in-process engines. Inputs and outputs are hex strings in the
+ * same format the binary accepts and prints.
+ */
+final class EngineHelper {
+    /**
+     * The binary accepts messages of up to 256 bytes.
+     */
+    static final int MAX_MESSAGE_LENGTH = 256;
+
+    /**
+     * The binary zero pads messages to a multiple of 64 bytes before signing or hashing them.
+     */
+    private static final int MESSAGE_BLOCK_SIZE = 64;
+
+    private static final char[] UPPER_CASE_HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private EngineHelper() {
+        throw new UnsupportedOperationException();
+    }
+
+    static byte[] decodeHex(String value, int expectedLength, String name) {
+        byte[] bytes = decodeHex(value, name);
+        if (bytes.length != expectedLength) {
+            throw new IllegalStateException(String.format("`%s` must have %d bytes", name, expectedLength));
+        }
+        return bytes;
+    }
+
+    static byte[] decodeHex(String value, String name) {
+        requireNonNull(value, String.format("`%s` must not be null", name));
+
+        try {
+            return Hex.decodeHex(value.toCharArray());
+        } catch (DecoderException e) {
+            throw new IllegalStateException(String.format("`%s` must be a hex string", name), e);
+        }
+    }
+
+    static String encodeHex(byte[] bytes) {
+        return new String(Hex.encodeHex(bytes, false));
+    }
+
+    /**
+     * Encodes the bytes between position zero and the current position of a buffer
+     * as upper case hex string.
+     */
+    static String encodeHex(ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        int length = buffer.position();
+
+        char[] chars = new char[length * 2];
+        for (int i = 0; i < length; i++) {
+            chars[i * 2] = UPPER_CASE_HEX_DIGITS[(bytes[i] & 0xF0) >>> 4];
+            chars[i * 2 + 1] = UPPER_CASE_HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decodes a hex string directly into a buffer without intermediate allocations.
+     */
+    static void putHex(ByteBuffer buffer, String value, int expectedLength, String name) {
+        requireNonNull(value, String.format("`%s` must not be null", name));
+        if (value.length() != expectedLength * 2) {
+            throw new IllegalStateException(String.format("`%s` must have %d bytes", name, expectedLength));
+        }
+
+        for (int i = 0; i < value.length(); i += 2) {
+            int high = Character.digit(value.charAt(i), 16);
+            int low = Character.digit(value.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalStateException(String.format("`%s` must be a hex string", name));
+            }
+            buffer.put((byte) ((high << 4) | low));
+        }
+    }
+
+    /**
+     * Writes a date in the 5 byte format of
+     * {@link org.amv.highmobility.cryptotool.CryptotoolUtils#encodeAsHex(LocalDateTime)}.
+     */
+    static void putDate(ByteBuffer buffer, LocalDateTime dateTime) {
+        ZonedDateTime zonedDateTime = dateTime.atZone(ZoneOffset.UTC);
+
+        buffer.put((byte) (zonedDateTime.getYear() - 2000));
+        buffer.put((byte) zonedDateTime.getMonthValue());
+        buffer.put((byte) zonedDateTime.getDayOfMonth());
+        buffer.put((byte) zonedDateTime.getHour());
+        buffer.put((byte) zonedDateTime.getMinute());
+    }
+
+    /**
+     * Decodes a message and pads it the way the binary does before hashing or signing it.
+     *
+     * @param message a message as hex string with at most {@link #MAX_MESSAGE_LENGTH} bytes
+     * @return the zero padded message bytes
+     */
+    static byte[] decodePaddedMessage(String message) {
+        byte[] bytes = decodeHex(message, "message");
+        if (bytes.length > MAX_MESSAGE_LENGTH) {
+            throw new IllegalStateException(String.format("`message` must not exceed %d bytes",
+                    MAX_MESSAGE_LENGTH));
+        }
+        return pad(bytes);
+    }
+
+    /**
+     * Pads a message the way the binary does before computing a hmac.
+     * Unlike signing, the binary does not limit the length of messages for hmac computation.
+     *
+     * @param message a message as hex string
+     * @return the zero padded message bytes
+     */
+    static byte[] decodePaddedHmacMessage(String message) {
+        return pad(decodeHex(message, "message"));
+    }
+
+    private static byte[] pad(byte[] bytes) {
+        int remainder = bytes.length % MESSAGE_BLOCK_SIZE;
+        if (remainder == 0) {
+            return bytes;
+        }
+        return Arrays.copyOf(bytes, bytes.length + MESSAGE_BLOCK_SIZE - remainder);
+    }
+}
@@ -0,0 +1,14 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+
+/**
+ * Generates and verifies hmacs without spawning the binary.
+ * Implementations must accept and produce values in the same format as the
+ * {@code hmac} and {@code hmacver} commands.
+ */
+public interface HmacEngine {
+    Cryptotool.Hmac generateHmac(String message, String key);
+
+    Cryptotool.Validity verifyHmac(String message, String key, String hmac);
+}
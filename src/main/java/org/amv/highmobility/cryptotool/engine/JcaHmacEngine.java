@@ -0,0 +1,99 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link HmacEngine} computing HMAC-SHA256 with the JCA.
+ * <p>
+ * Messages are zero padded like the binary does, hmacs are returned as upper case hex - exactly
+ * like the output of the {@code hmac} command. Key specs are cached by their hex representation,
+ * {@link Mac} instances are reused per thread and hmacs are compared in constant time.
+ */
+public class JcaHmacEngine implements HmacEngine {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int KEY_LENGTH = 32;
+    private static final int HMAC_LENGTH = 32;
+    private static final long DEFAULT_MAX_CACHED_KEYS = 1_000L;
+
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<String, SecretKeySpec> keys;
+
+    public JcaHmacEngine() {
+        this(DEFAULT_MAX_CACHED_KEYS);
+    }
+
+    public JcaHmacEngine(long maxCachedKeys) {
+        checkArgument(maxCachedKeys >= 0, "`maxCachedKeys` must not be negative");
+
+        this.keys = CacheBuilder.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .build();
+    }
+
+    @Override
+    public Cryptotool.Hmac generateHmac(String message, String key) {
+        requireNonNull(message, "`message` must not be null");
+        checkArgument(!isNullOrEmpty(key), "`key` must not be empty");
+
+        byte[] hmac = computeHmac(message, key);
+
+        return CryptotoolImpl.HmacImpl.builder()
+                .hmac(EngineHelper.encodeHex(hmac))
+                .build();
+    }
+
+    @Override
+    public Cryptotool.Validity verifyHmac(String message, String key, String hmac) {
+        requireNonNull(message, "`message` must not be null");
+        checkArgument(!isNullOrEmpty(key), "`key` must not be empty");
+        checkArgument(!isNullOrEmpty(hmac), "`hmac` must not be empty");
+
+        byte[] expectedHmac = EngineHelper.decodeHex(hmac, HMAC_LENGTH, "hmac");
+        byte[] actualHmac = computeHmac(message, key);
+
+        return MessageDigest.isEqual(expectedHmac, actualHmac) ?
+                Cryptotool.Validity.VALID :
+                Cryptotool.Validity.INVALID;
+    }
+
+    private byte[] computeHmac(String message, String key) {
+        byte[] paddedMessage = EngineHelper.decodePaddedHmacMessage(message);
+        SecretKeySpec keySpec = getKeySpec(key);
+
+        try {
+            Mac mac = macs.get();
+            mac.init(keySpec);
+            return mac.doFinal(paddedMessage);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute hmac", e);
+        }
+    }
+
+    private SecretKeySpec getKeySpec(String key) {
+        SecretKeySpec keySpec = keys.getIfPresent(key);
+        if (keySpec == null) {
+            keySpec = new SecretKeySpec(EngineHelper.decodeHex(key, KEY_LENGTH, "key"), ALGORITHM);
+            keys.put(key, keySpec);
+        }
+        return keySpec;
+    }
+}
@@ -0,0 +1,45 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+
+/**
+ * A {@link KeysEngine} generating P-256 key pairs with the JCA.
+ * <p>
+ * Keys are returned as upper case hex - the private key as 32 byte scalar and the public key
+ * as the 32 byte coordinates {@code x} and {@code y} concatenated - exactly like the
+ * output of the {@code keys} command. {@link KeyPairGenerator} instances are reused per thread.
+ */
+public class JcaKeysEngine implements KeysEngine {
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final ThreadLocal<KeyPairGenerator> keyPairGenerators = ThreadLocal.withInitial(() -> {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(P256.parameterSpec(), secureRandom);
+            return keyPairGenerator;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Override
+    public Cryptotool.Keys generateKeys() {
+        KeyPair keyPair = keyPairGenerators.get().generateKeyPair();
+
+        byte[] privateKey = P256.toRawPrivateKey((ECPrivateKey) keyPair.getPrivate());
+        byte[] publicKey = P256.toRawPublicKey((ECPublicKey) keyPair.getPublic());
+
+        return CryptotoolImpl.KeysImpl.builder()
+                .privateKey(EngineHelper.encodeHex(privateKey))
+                .publicKey(EngineHelper.encodeHex(publicKey))
+                .build();
+    }
+}
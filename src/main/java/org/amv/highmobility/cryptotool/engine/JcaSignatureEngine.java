@@ -0,0 +1,169 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link SignatureEngine} creating and verifying ECDSA P-256 signatures with the JCA.
+ * <p>
+ * Messages are hashed with SHA-256 after being zero padded like the binary does, signatures
+ * are returned as hex encoded {@code r || s} - exactly like the output of the {@code sign} command.
+ * Parsed public keys are cached by their hex representation, private keys are parsed on every call
+ * so that no secret material is retained. {@link java.security.Signature} instances
+ * are reused per thread. When verifying in bulk, requests are grouped by public key so that every
+ * key is parsed and a verifier initialized only once per group.
+ */
+public class JcaSignatureEngine implements SignatureEngine {
+    private static final long DEFAULT_MAX_CACHED_KEYS = 1_000L;
+
+    private final ThreadLocal<java.security.Signature> signatures = ThreadLocal.withInitial(() -> {
+        try {
+            return java.security.Signature.getInstance(P256.SIGNATURE_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<String, ECPublicKey> publicKeys;
+
+    public JcaSignatureEngine() {
+        this(DEFAULT_MAX_CACHED_KEYS);
+    }
+
+    public JcaSignatureEngine(long maxCachedKeys) {
+        checkArgument(maxCachedKeys >= 0, "`maxCachedKeys` must not be negative");
+
+        this.publicKeys = CacheBuilder.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .build();
+    }
+
+    @Override
+    public Cryptotool.Signature sign(String message, String privateKey) {
+        requireNonNull(message, "`message` must not be null");
+        checkArgument(!isNullOrEmpty(privateKey), "`privateKey` must not be empty");
+
+        byte[] paddedMessage = EngineHelper.decodePaddedMessage(message);
+        ECPrivateKey key = P256.privateKey(EngineHelper.decodeHex(privateKey, P256.PRIVATE_KEY_LENGTH, "privateKey"));
+
+        try {
+            java.security.Signature signature = signatures.get();
+            signature.initSign(key);
+            signature.update(paddedMessage);
+
+            byte[] rawSignature = P256.toRawSignature(signature.sign());
+
+            return CryptotoolImpl.SignatureImpl.builder()
+                    .signature(EngineHelper.encodeHex(rawSignature))
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create signature", e);
+        }
+    }
+
+    /**
+     * Verifies a signature. Like the {@code verify} command this fails with an
+     * {@link IllegalStateException} if an argument is malformed, e.g. an overlong message.
+     */
+    @Override
+    public Cryptotool.Validity verify(String message, String signature, String publicKey) {
+        requireNonNull(message, "`message` must not be null");
+        checkArgument(!isNullOrEmpty(signature), "`signature` must not be empty");
+        checkArgument(!isNullOrEmpty(publicKey), "`publicKey` must not be empty");
+
+        ECPublicKey key = getPublicKey(publicKey);
+
+        java.security.Signature verifier = signatures.get();
+        initVerify(verifier, key);
+
+        return verify(verifier, key, message, signature);
+    }
+
+    @Override
+    public List<Cryptotool.Validity> verifyAll(List<? extends Cryptotool.VerifyRequest> requests) {
+        requireNonNull(requests, "`requests` must not be null");
+
+        Map<String, List<Integer>> indicesByPublicKey = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String publicKey = requests.get(i).getPublicKey();
+            checkArgument(!isNullOrEmpty(publicKey), "`publicKey` must not be empty");
+
+            indicesByPublicKey.computeIfAbsent(publicKey, key -> new ArrayList<>()).add(i);
+        }
+
+        Cryptotool.Validity[] validities = new Cryptotool.Validity[requests.size()];
+        java.security.Signature verifier = signatures.get();
+
+        for (Map.Entry<String, List<Integer>> entry : indicesByPublicKey.entrySet()) {
+            ECPublicKey key = getPublicKey(entry.getKey());
+            initVerify(verifier, key);
+
+            for (int index : entry.getValue()) {
+                Cryptotool.VerifyRequest request = requests.get(index);
+                requireNonNull(request.getMessage(), "`message` must not be null");
+                checkArgument(!isNullOrEmpty(request.getSignature()), "`signature` must not be empty");
+
+                validities[index] = verify(verifier, key, request.getMessage(), request.getSignature());
+            }
+        }
+
+        return Arrays.asList(validities);
+    }
+
+    /**
+     * Verifies a signature with an initialized verifier. A successful verification
+     * resets the verifier to its initialized state, so it can be reused for the same key.
+     */
+    private static Cryptotool.Validity verify(java.security.Signature verifier,
+                                              ECPublicKey key,
+                                              String message,
+                                              String signature) {
+        byte[] paddedMessage = EngineHelper.decodePaddedMessage(message);
+        byte[] derSignature = P256.toDerSignature(
+                EngineHelper.decodeHex(signature, P256.SIGNATURE_LENGTH, "signature"));
+
+        try {
+            verifier.update(paddedMessage);
+
+            return verifier.verify(derSignature) ? Cryptotool.Validity.VALID : Cryptotool.Validity.INVALID;
+        } catch (SignatureException e) {
+            // the state of the verifier is undefined after an exception
+            initVerify(verifier, key);
+            return Cryptotool.Validity.INVALID;
+        }
+    }
+
+    private static void initVerify(java.security.Signature verifier, ECPublicKey key) {
+        try {
+            verifier.initVerify(key);
+        } catch (InvalidKeyException e) {
+            throw new IllegalStateException("Cannot verify signature", e);
+        }
+    }
+
+    private ECPublicKey getPublicKey(String publicKey) {
+        ECPublicKey key = publicKeys.getIfPresent(publicKey);
+        if (key == null) {
+            key = P256.publicKey(EngineHelper.decodeHex(publicKey, P256.PUBLIC_KEY_LENGTH, "publicKey"));
+            publicKeys.put(publicKey, key);
+        }
+        return key;
+    }
+}
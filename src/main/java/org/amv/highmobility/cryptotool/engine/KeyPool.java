@@ -0,0 +1,110 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.amv.highmobility.cryptotool.Cryptotool;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link KeysEngine} handing out pre-generated key pairs.
+ * <p>
+ * Key pairs are generated by the given {@link KeysEngine} on a background thread until
+ * the pool holds {@code size} key pairs. Every taken key pair triggers a refill.
+ * If the pool is empty, e.g. during a burst exceeding its size, key pairs are generated
+ * on the calling thread. Every key pair is handed out at most once.
+ */
+@Slf4j
+public class KeyPool implements KeysEngine, AutoCloseable {
+    private static final String REFILL_THREAD_NAME_FORMAT = "cryptotool-key-pool-%d";
+    private static final int DEFAULT_SIZE = 100;
+
+    private final KeysEngine keysEngine;
+    private final int size;
+    private final BlockingQueue<Cryptotool.Keys> keys;
+    private final ExecutorService refillExecutor;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private volatile boolean closed;
+
+    @lombok.Builder(builderClassName = "Builder")
+    public KeyPool(KeysEngine keysEngine, Integer size) {
+        requireNonNull(keysEngine, "`keysEngine` must not be null");
+        checkArgument(size == null || size > 0, "`size` must be positive");
+
+        this.keysEngine = keysEngine;
+        this.size = size != null ? size : DEFAULT_SIZE;
+        this.keys = new ArrayBlockingQueue<>(this.size);
+        this.refillExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(REFILL_THREAD_NAME_FORMAT)
+                .setDaemon(true)
+                .build());
+
+        scheduleRefill();
+    }
+
+    @Override
+    public Cryptotool.Keys generateKeys() {
+        Cryptotool.Keys pooledKeys = keys.poll();
+
+        scheduleRefill();
+
+        return pooledKeys != null ? pooledKeys : keysEngine.generateKeys();
+    }
+
+    /**
+     * @return the number of key pairs currently available in the pool
+     */
+    public int getAvailableKeysCount() {
+        return keys.size();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.refillExecutor.shutdownNow();
+        this.keys.clear();
+    }
+
+    private void scheduleRefill() {
+        if (closed || keys.size() >= size || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refillExecutor.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    private void refill() {
+        boolean succeeded = false;
+        try {
+            while (!closed && keys.size() < size) {
+                keys.offer(keysEngine.generateKeys());
+            }
+            succeeded = true;
+        } catch (Exception e) {
+            log.warn("Error while refilling key pool: {}", e.getMessage());
+        } finally {
+            refilling.set(false);
+        }
+
+        // keys taken after the last size check would otherwise wait for the next call to be refilled
+        if (succeeded) {
+            scheduleRefill();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+
+/**
+ * Generates key pairs without spawning the binary.
+ * Implementations must produce keys in the same format as the {@code keys} command.
+ */
+public interface KeysEngine {
+    Cryptotool.Keys generateKeys();
+}
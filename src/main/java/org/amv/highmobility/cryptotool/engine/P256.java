@@ -0,0 +1,164 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Arrays;
+
+/**
+ * Conversions between the raw key and signature formats of the binary and the JCA types
+ * for the NIST P-256 curve (secp256r1).
+ * <p>
+ * The binary represents a private key as 32 byte scalar, a public key as the 32 byte
+ * coordinates {@code x} and {@code y} concatenated and a signature as the 32 byte
+ * values {@code r} and {@code s} concatenated.
+ */
+final class P256 {
+    static final String CURVE_NAME = "secp256r1";
+    static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
+
+    static final int PRIVATE_KEY_LENGTH = 32;
+    static final int PUBLIC_KEY_LENGTH = 64;
+    static final int SIGNATURE_LENGTH = 64;
+
+    private static final int COORDINATE_LENGTH = 32;
+    private static final byte DER_SEQUENCE = 0x30;
+    private static final byte DER_INTEGER = 0x02;
+
+    private static final ECParameterSpec PARAMETER_SPEC = createParameterSpec();
+
+    private P256() {
+        throw new UnsupportedOperationException();
+    }
+
+    static ECParameterSpec parameterSpec() {
+        return PARAMETER_SPEC;
+    }
+
+    static ECPrivateKey privateKey(byte[] privateKey) {
+        try {
+            ECPrivateKeySpec keySpec = new ECPrivateKeySpec(new BigInteger(1, privateKey), PARAMETER_SPEC);
+            return (ECPrivateKey) KeyFactory.getInstance("EC").generatePrivate(keySpec);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create private key", e);
+        }
+    }
+
+    static ECPublicKey publicKey(byte[] publicKey) {
+        if (publicKey.length != PUBLIC_KEY_LENGTH) {
+            throw new IllegalStateException(String.format("`publicKey` must have %d bytes", PUBLIC_KEY_LENGTH));
+        }
+
+        BigInteger x = new BigInteger(1, Arrays.copyOfRange(publicKey, 0, COORDINATE_LENGTH));
+        BigInteger y = new BigInteger(1, Arrays.copyOfRange(publicKey, COORDINATE_LENGTH, PUBLIC_KEY_LENGTH));
+        try {
+            ECPublicKeySpec keySpec = new ECPublicKeySpec(new ECPoint(x, y), PARAMETER_SPEC);
+            return (ECPublicKey) KeyFactory.getInstance("EC").generatePublic(keySpec);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create public key", e);
+        }
+    }
+
+    static byte[] toRawPrivateKey(ECPrivateKey privateKey) {
+        byte[] raw = new byte[PRIVATE_KEY_LENGTH];
+        copyUnsigned(privateKey.getS(), raw, 0);
+        return raw;
+    }
+
+    static byte[] toRawPublicKey(ECPublicKey publicKey) {
+        byte[] raw = new byte[PUBLIC_KEY_LENGTH];
+        copyUnsigned(publicKey.getW().getAffineX(), raw, 0);
+        copyUnsigned(publicKey.getW().getAffineY(), raw, COORDINATE_LENGTH);
+        return raw;
+    }
+
+    private static void copyUnsigned(BigInteger value, byte[] dest, int destOffset) {
+        byte[] bytes = value.toByteArray();
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, dest, destOffset + COORDINATE_LENGTH - length, length);
+    }
+
+    /**
+     * Converts a DER encoded ECDSA signature as produced by the JCA to the raw format of the binary.
+     */
+    static byte[] toRawSignature(byte[] derSignature) {
+        if (derSignature.length < 8 || derSignature[0] != DER_SEQUENCE) {
+            throw new IllegalStateException("Invalid DER signature");
+        }
+
+        int rOffset = 2;
+        int rLength = integerLength(derSignature, rOffset);
+        int sOffset = rOffset + 2 + rLength;
+        int sLength = integerLength(derSignature, sOffset);
+
+        byte[] raw = new byte[SIGNATURE_LENGTH];
+        copyUnsigned(derSignature, rOffset + 2, rLength, raw, 0);
+        copyUnsigned(derSignature, sOffset + 2, sLength, raw, COORDINATE_LENGTH);
+        return raw;
+    }
+
+    private static int integerLength(byte[] der, int offset) {
+        if (offset + 2 > der.length || der[offset] != DER_INTEGER) {
+            throw new IllegalStateException("Invalid DER signature");
+        }
+        int length = der[offset + 1];
+        if (length <= 0 || offset + 2 + length > der.length) {
+            throw new IllegalStateException("Invalid DER signature");
+        }
+        return length;
+    }
+
+    private static void copyUnsigned(byte[] src, int srcOffset, int length, byte[] dest, int destOffset) {
+        // skip the sign byte of positive integers
+        while (length > COORDINATE_LENGTH && src[srcOffset] == 0) {
+            srcOffset++;
+            length--;
+        }
+        if (length > COORDINATE_LENGTH) {
+            throw new IllegalStateException("Invalid DER signature");
+        }
+        System.arraycopy(src, srcOffset, dest, destOffset + COORDINATE_LENGTH - length, length);
+    }
+
+    /**
+     * Converts a raw signature of the binary to the DER encoding expected by the JCA.
+     */
+    static byte[] toDerSignature(byte[] rawSignature) {
+        if (rawSignature.length != SIGNATURE_LENGTH) {
+            throw new IllegalStateException(String.format("`signature` must have %d bytes", SIGNATURE_LENGTH));
+        }
+
+        byte[] r = new BigInteger(1, Arrays.copyOfRange(rawSignature, 0, COORDINATE_LENGTH)).toByteArray();
+        byte[] s = new BigInteger(1, Arrays.copyOfRange(rawSignature, COORDINATE_LENGTH, SIGNATURE_LENGTH))
+                .toByteArray();
+
+        byte[] der = new byte[6 + r.length + s.length];
+        der[0] = DER_SEQUENCE;
+        der[1] = (byte) (4 + r.length + s.length);
+        der[2] = DER_INTEGER;
+        der[3] = (byte) r.length;
+        System.arraycopy(r, 0, der, 4, r.length);
+        der[4 + r.length] = DER_INTEGER;
+        der[5 + r.length] = (byte) s.length;
+        System.arraycopy(s, 0, der, 6 + r.length, s.length);
+        return der;
+    }
+
+    private static ECParameterSpec createParameterSpec() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(CURVE_NAME));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Curve " + CURVE_NAME + " is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and verifies signatures without spawning the binary.
+ * Implementations must accept and produce values in the same format as the
+ * {@code sign} and {@code verify} commands.
+ */
+public interface SignatureEngine {
+    Cryptotool.Signature sign(String message, String privateKey);
+
+    Cryptotool.Validity verify(String message, String signature, String publicKey);
+
+    /**
+     * Verifies many signatures at once. Implementations may take advantage of requests
+     * sharing the same public key.
+     *
+     * @param requests the messages and signatures to verify along with their public keys
+     * @return the validities in the order of their requests
+     */
+    default List<Cryptotool.Validity> verifyAll(List<? extends Cryptotool.VerifyRequest> requests) {
+        return requests.stream()
+                .map(request -> verify(request.getMessage(), request.getSignature(), request.getPublicKey()))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,10 +1,26 @@
 package org.amv.highmobility.cryptotool;
 
+import com.google.common.io.Files;
+import org.apache.commons.lang3.SystemUtils;
 import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNoException;
+import static org.junit.Assume.assumeTrue;
 
 
 public class BinariesTest {
@@ -12,32 +28,153 @@ public class BinariesTest {
     public void defaultBinary() throws Exception {
         final Binary binary = Binaries.defaultBinary();
         assertThat(binary, is(notNullValue()));
-
-        binary.getFile().delete();
+        assertThat(binary.getFile().isFile(), is(true));
     }
 
     @Test
     public void windowsBinary() throws Exception {
         final Binary binary = Binaries.windowsBinary();
         assertThat(binary, is(notNullValue()));
-
-        binary.getFile().delete();
+        assertThat(binary.getFile().isFile(), is(true));
     }
 
     @Test
     public void unixBinary() throws Exception {
         final Binary binary = Binaries.unixBinary();
         assertThat(binary, is(notNullValue()));
-
-        binary.getFile().delete();
+        assertThat(binary.getFile().isFile(), is(true));
     }
 
     @Test
     public void redhatBinary() throws Exception {
         final Binary binary = Binaries.redhatBinary();
         assertThat(binary, is(notNullValue()));
+        assertThat(binary.getFile().isFile(), is(true));
+    }
+
+    @Test
+    public void itShouldExtractBinaryOnlyOnce() throws Exception {
+        File cacheDirectory = newCacheDirectory();
+
+        File binary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+        long lastModified = binary.lastModified();
+
+        Thread.sleep(1_100L);
+        File cachedBinary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+
+        assertThat(cachedBinary, is(binary));
+        assertThat(cachedBinary.lastModified(), is(lastModified));
+        assertThat(cachedBinary.canExecute(), is(true));
+        assertThat(cachedBinary.getParentFile().getParentFile(), is(cacheDirectory));
+    }
+
+    @Test
+    public void itShouldExtractBinaryAgainIfDeleted() throws Exception {
+        File cacheDirectory = newCacheDirectory();
+
+        File binary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+        long size = binary.length();
+        assertThat(binary.delete(), is(true));
+
+        File extractedBinary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+
+        assertThat(extractedBinary, is(binary));
+        assertThat(extractedBinary.length(), is(size));
+    }
+
+    @Test
+    public void itShouldUseDifferentDirectoriesForDifferentBinaries() throws Exception {
+        File cacheDirectory = newCacheDirectory();
+
+        File unixBinary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+        File redhatBinary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-fedora", cacheDirectory);
 
-        binary.getFile().delete();
+        assertThat(unixBinary.equals(redhatBinary), is(false));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void itShouldExtractBinaryConcurrently() {
+        File cacheDirectory = newCacheDirectory();
+
+        List<File> binaries = Flux.range(0, 16)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .map(i -> {
+                    try {
+                        return Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .sequential()
+                .collectList()
+                .block();
+
+        assertThat(binaries, hasSize(16));
+        assertThat(binaries, everyItem(is(binaries.get(0))));
+        assertThat(binaries.get(0).getParentFile().list().length, is(1));
+    }
+
+    @Test
+    public void itShouldReplaceModifiedBinary() throws Exception {
+        File cacheDirectory = newCacheDirectory();
+
+        File binary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+        byte[] content = Files.toByteArray(binary);
+
+        byte[] modifiedContent = content.clone();
+        modifiedContent[modifiedContent.length - 1] ^= 1;
+        Files.write(modifiedContent, binary);
+
+        File extractedBinary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+
+        assertThat(extractedBinary, is(binary));
+        assertThat(Arrays.equals(Files.toByteArray(extractedBinary), content), is(true));
+    }
+
+    @Test
+    public void itShouldCreateCacheDirectoryAccessibleByOwnerOnly() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        File cacheDirectory = newCacheDirectory();
+
+        File binary = Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+
+        assertThat(PosixFilePermissions.toString(java.nio.file.Files.getPosixFilePermissions(cacheDirectory.toPath())),
+                is("rwx------"));
+        assertThat(PosixFilePermissions.toString(java.nio.file.Files.getPosixFilePermissions(binary.toPath().getParent())),
+                is("rwx------"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldRefuseCacheDirectoryWritableByOthers() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        File cacheDirectory = newCacheDirectory();
+        assertThat(cacheDirectory.mkdir(), is(true));
+        java.nio.file.Files.setPosixFilePermissions(cacheDirectory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldRefuseCacheDirectoryOwnedByAnotherUser() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        File cacheDirectory = newCacheDirectory();
+        assertThat(cacheDirectory.mkdir(), is(true));
+        try {
+            UserPrincipal nobody = FileSystems.getDefault().getUserPrincipalLookupService()
+                    .lookupPrincipalByName("nobody");
+            java.nio.file.Files.setOwner(cacheDirectory.toPath(), nobody);
+        } catch (IOException e) {
+            assumeNoException("Changing the owner requires privileges", e);
+        }
+
+        Binaries.copyBinaryFromJarToDisk("/cryptotool/bin/crypto-tool-deb64", cacheDirectory);
+    }
+
+    private static File newCacheDirectory() {
+        return new File(Files.createTempDir(), "cache");
+    }
+}
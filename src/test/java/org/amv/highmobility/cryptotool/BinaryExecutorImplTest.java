@@ -0,0 +1,230 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class BinaryExecutorImplTest {
+
+    private ExecutorService drainExecutor;
+
+    private BinaryExecutorImpl sut;
+
+    @Before
+    public void setUp() {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        this.drainExecutor = BinaryExecutorImpl.createDrainExecutor(2);
+        this.sut = BinaryExecutorImpl.builder()
+                .binary(shellBinary())
+                .workingDirectory(Files.createTempDir())
+                .drainExecutor(drainExecutor)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        if (this.sut != null) {
+            this.sut.close();
+            this.drainExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void itShouldReadStdoutAndStderr() {
+        ProcessResult processResult = this.sut.execute(Arrays.asList("-c", "echo out; echo err 1>&2"))
+                .blockLast();
+
+        assertThat(processResult.getStdoutLines(), is(Arrays.asList("out")));
+        assertThat(processResult.getStderrLines(), is(Arrays.asList("err")));
+    }
+
+    @Test
+    public void itShouldRecordMetricsPerCommand() {
+        RecordingCryptotoolMetrics metrics = new RecordingCryptotoolMetrics();
+        BinaryExecutorImpl binaryExecutor = BinaryExecutorImpl.builder()
+                .binary(shellBinary())
+                .workingDirectory(Files.createTempDir())
+                .metrics(metrics)
+                .build();
+
+        try {
+            binaryExecutor.execute(Arrays.asList("-c", "echo out; echo err 1>&2; exit 3")).blockLast();
+        } finally {
+            binaryExecutor.close();
+        }
+
+        assertThat(metrics.get("spawn", "-c"), hasSize(1));
+        assertThat(metrics.get("run", "-c"), hasSize(1));
+        assertThat(metrics.get("drain", "-c"), hasSize(1));
+        assertThat(metrics.get("status", "-c"), is(Arrays.<Object>asList(3)));
+        assertThat(metrics.get("stderr", "-c"), hasSize(1));
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldNotBlockWhenOutputExceedsPipeBuffer() {
+        int lineCount = 100_000;
+        String script = String.format("yes out | head -n %d; yes err | head -n %d 1>&2", lineCount, lineCount);
+
+        ProcessResult processResult = this.sut.execute(Arrays.asList("-c", script))
+                .blockLast();
+
+        assertThat(processResult.getStdoutLines(), hasSize(lineCount));
+        assertThat(processResult.getStderrLines(), hasSize(lineCount));
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldKillProcessOnTimeout() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_LINUX);
+
+        File pidFile = new File(Files.createTempDir(), "pid");
+        String script = String.format("echo $$ > %s; exec sleep 30", pidFile.getAbsolutePath());
+
+        try {
+            this.sut.execute(Arrays.asList("-c", script))
+                    .timeout(Duration.ofMillis(500L))
+                    .blockLast();
+            Assert.fail("Should have thrown timeout exception");
+        } catch (Exception e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+
+        assertThat(this.sut.getKilledProcessCount(), is(1L));
+
+        String pid = Files.asCharSource(pidFile, Charsets.UTF_8).read().trim();
+        File procEntry = new File("/proc/" + pid);
+        while (procEntry.exists()) {
+            Thread.sleep(10L);
+        }
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldKillProcessOnClose() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_LINUX);
+
+        File pidFile = new File(Files.createTempDir(), "pid");
+        String script = String.format("echo $$ > %s.tmp; mv %s.tmp %s; exec sleep 30 > /dev/null",
+                pidFile.getAbsolutePath(), pidFile.getAbsolutePath(), pidFile.getAbsolutePath());
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        this.sut.execute(Arrays.asList("-c", script))
+                .subscribe(processResult -> {
+                }, error::set);
+
+        while (!pidFile.exists()) {
+            Thread.sleep(10L);
+        }
+
+        this.sut.close();
+
+        String pid = Files.asCharSource(pidFile, Charsets.UTF_8).read().trim();
+        File procEntry = new File("/proc/" + pid);
+        while (procEntry.exists()) {
+            Thread.sleep(10L);
+        }
+
+        while (error.get() == null) {
+            Thread.sleep(10L);
+        }
+
+        assertThat(error.get(), is(instanceOf(InterruptedException.class)));
+        assertThat(this.sut.getKilledProcessCount(), is(1L));
+    }
+
+    @Test
+    public void itShouldReuseDrainThreadsAcrossExecutions() {
+        for (int i = 0; i < 20; i++) {
+            this.sut.execute(Arrays.asList("-c", "echo " + i)).blockLast();
+        }
+
+        BinaryExecutorImpl.ExecutorStats stats = this.sut.getDrainExecutorStats()
+                .orElseThrow(IllegalStateException::new);
+
+        assertThat(stats.getMaximumPoolSize(), is(2));
+        assertThat(stats.getPoolSize(), is(lessThanOrEqualTo(2)));
+    }
+
+    @Test
+    public void itShouldNotSpawnProcessesOnSubscribingThread() {
+        String threadName = this.sut.execute(Arrays.asList("-c", "echo out"))
+                .map(processResult -> Thread.currentThread().getName())
+                .blockLast();
+
+        assertThat(threadName, startsWith("cryptotool-process-"));
+    }
+
+    @Test
+    public void itShouldRejectExecutionsWhenQueueIsFull() {
+        BinaryExecutorImpl binaryExecutor = BinaryExecutorImpl.builder()
+                .binary(shellBinary())
+                .workingDirectory(Files.createTempDir())
+                .maxConcurrentProcesses(1)
+                .maxQueuedProcesses(1)
+                .build();
+
+        try {
+            List<Throwable> errors = Flux.range(0, 3)
+                    .flatMap(i -> binaryExecutor.execute(Arrays.asList("-c", "sleep 1"))
+                            .map(processResult -> (Throwable) new IllegalStateException("Unexpected success"))
+                            .onErrorResume(e -> Flux.just(e))
+                            .filter(e -> e instanceof RejectedExecutionException))
+                    .collectList()
+                    .block();
+
+            assertThat(errors, hasSize(1));
+        } finally {
+            binaryExecutor.close();
+        }
+    }
+
+    @Test
+    public void itShouldNotShutdownDrainExecutorPassedInViaBuilder() {
+        this.sut.close();
+
+        assertThat(this.drainExecutor.isShutdown(), is(false));
+    }
+
+    @Test
+    public void itShouldShutdownOwnedDrainExecutorOnClose() {
+        BinaryExecutorImpl binaryExecutor = new BinaryExecutorImpl(shellBinary(), Files.createTempDir());
+        binaryExecutor.close();
+
+        ProcessResult processResult = binaryExecutor.execute(Arrays.asList("-c", "echo out"))
+                .onErrorReturn(ProcessResultImpl.builder()
+                        .status(-1)
+                        .output(Arrays.asList())
+                        .errors(Arrays.asList("rejected"))
+                        .build())
+                .blockLast();
+
+        assertThat(processResult.hasErrors(), is(true));
+    }
+
+    private static Binary shellBinary() {
+        return BinaryImpl.builder()
+                .file(new File("/bin/sh"))
+                .build();
+    }
+}
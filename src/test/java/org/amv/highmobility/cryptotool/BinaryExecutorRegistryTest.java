@@ -0,0 +1,107 @@
+package org.amv.highmobility.cryptotool;
+
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BinaryExecutorRegistryTest {
+
+    private BinaryExecutorRegistry sut;
+
+    @Before
+    public void setUp() {
+        this.sut = new BinaryExecutorRegistry();
+    }
+
+    @Test
+    public void itShouldShareExecutorPerPlatform() throws Exception {
+        try (SharedBinaryExecutor first = sut.acquire(Binaries.Platform.DEB64);
+             SharedBinaryExecutor second = sut.acquire(Binaries.Platform.DEB64);
+             SharedBinaryExecutor other = sut.acquire(Binaries.Platform.FEDORA)) {
+
+            assertThat(first.getBinary(), is(second.getBinary()));
+            assertThat(first.getWorkingDirectory(), is(second.getWorkingDirectory()));
+            assertThat(other.getWorkingDirectory(), is(not(first.getWorkingDirectory())));
+
+            assertThat(sut.getReferenceCount(Binaries.Platform.DEB64), is(2));
+            assertThat(sut.getReferenceCount(Binaries.Platform.FEDORA), is(1));
+        }
+
+        assertThat(sut.getReferenceCount(Binaries.Platform.DEB64), is(0));
+        assertThat(sut.getReferenceCount(Binaries.Platform.FEDORA), is(0));
+    }
+
+    @Test
+    public void itShouldDeleteWorkingDirectoryWhenLastReferenceIsClosed() throws Exception {
+        SharedBinaryExecutor first = sut.acquire(Binaries.Platform.DEB64);
+        SharedBinaryExecutor second = sut.acquire(Binaries.Platform.DEB64);
+
+        first.close();
+        assertThat(first.getWorkingDirectory().exists(), is(true));
+
+        second.close();
+        assertThat(second.getWorkingDirectory().exists(), is(false));
+        assertThat(second.getBinary().getFile().exists(), is(true));
+    }
+
+    @Test
+    public void itShouldIgnoreClosingReferenceTwice() throws Exception {
+        SharedBinaryExecutor first = sut.acquire(Binaries.Platform.DEB64);
+        SharedBinaryExecutor second = sut.acquire(Binaries.Platform.DEB64);
+
+        first.close();
+        first.close();
+
+        assertThat(sut.getReferenceCount(Binaries.Platform.DEB64), is(1));
+        assertThat(second.getWorkingDirectory().exists(), is(true));
+
+        second.close();
+    }
+
+    @Test
+    public void itShouldCreateNewExecutorAfterRelease() throws Exception {
+        SharedBinaryExecutor first = sut.acquire(Binaries.Platform.DEB64);
+        first.close();
+
+        try (SharedBinaryExecutor second = sut.acquire(Binaries.Platform.DEB64)) {
+            assertThat(second.getWorkingDirectory(), is(not(first.getWorkingDirectory())));
+            assertThat(second.getWorkingDirectory().exists(), is(true));
+        }
+    }
+
+    @Test
+    public void itShouldDeleteWorkingDirectoriesOfOpenReferencesOnShutdown() throws Exception {
+        SharedBinaryExecutor unix = sut.acquire(Binaries.Platform.DEB64);
+        SharedBinaryExecutor redhat = sut.acquire(Binaries.Platform.FEDORA);
+
+        sut.closeAll();
+
+        assertThat(unix.getWorkingDirectory().exists(), is(false));
+        assertThat(redhat.getWorkingDirectory().exists(), is(false));
+        assertThat(sut.getReferenceCount(Binaries.Platform.DEB64), is(0));
+
+        unix.close();
+        redhat.close();
+    }
+
+    @Test
+    public void itShouldFailExecutingCommandsAfterClose() throws Exception {
+        SharedBinaryExecutor executor = sut.acquire(Binaries.Platform.DEB64);
+        executor.close();
+
+        try {
+            executor.execute(Arrays.asList("-v")).blockLast();
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            assertThat(e, is(instanceOf(IllegalStateException.class)));
+        }
+    }
+}
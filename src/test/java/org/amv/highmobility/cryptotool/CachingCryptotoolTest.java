@@ -0,0 +1,150 @@
+package org.amv.highmobility.cryptotool;
+
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.amv.highmobility.cryptotool.engine.DeviceCertificateBuilder;
+import org.amv.highmobility.cryptotool.engine.JcaHmacEngine;
+import org.amv.highmobility.cryptotool.engine.JcaKeysEngine;
+import org.amv.highmobility.cryptotool.engine.JcaSignatureEngine;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class CachingCryptotoolTest {
+
+    private Cryptotool.Keys keys;
+
+    private CachingCryptotool sut;
+
+    @Before
+    public void setUp() {
+        this.keys = new JcaKeysEngine().generateKeys();
+
+        CryptotoolOptions options = CryptotoolOptionsImpl.builder()
+                .binaryExecutor(args -> {
+                    throw new IllegalStateException("Binary must not be executed");
+                })
+                .signatureEngine(new JcaSignatureEngine())
+                .hmacEngine(new JcaHmacEngine())
+                .deviceCertificateEngine(new DeviceCertificateBuilder())
+                .build();
+
+        this.sut = CachingCryptotool.builder()
+                .delegate(new CryptotoolImpl(options))
+                .maximumSize(2L)
+                .build();
+    }
+
+    @Test
+    public void itShouldCacheSignatureVerification() {
+        String message = SecureRandomUtils.generateRandomHexString(42);
+        String signature = sut.generateSignature(message, keys.getPrivateKey()).block().getSignature();
+
+        Cryptotool.Validity first = sut.verifySignature(message, signature, keys.getPublicKey()).block();
+        Cryptotool.Validity second = sut.verifySignature(message, signature, keys.getPublicKey()).block();
+
+        assertThat(first, is(Cryptotool.Validity.VALID));
+        assertThat(second, is(Cryptotool.Validity.VALID));
+        assertThat(sut.getStats().getMissCount(), is(1L));
+        assertThat(sut.getStats().getHitCount(), is(1L));
+    }
+
+    @Test
+    public void itShouldSignalNullArgumentsOnSubscription() {
+        Mono<Cryptotool.Validity> validity = sut.verifySignature(null, "00", keys.getPublicKey());
+
+        try {
+            validity.block();
+            Assert.fail("Should have thrown NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(sut.getStats().getMissCount(), is(0L));
+        }
+    }
+
+    @Test
+    public void itShouldNotCacheSignatures() {
+        String message = SecureRandomUtils.generateRandomHexString(42);
+
+        String first = sut.generateSignature(message, keys.getPrivateKey()).block().getSignature();
+        String second = sut.generateSignature(message, keys.getPrivateKey()).block().getSignature();
+
+        assertThat(first, is(not(second)));
+        assertThat(sut.getStats().getSize(), is(0L));
+    }
+
+    @Test
+    public void itShouldCacheHmacs() {
+        String message = SecureRandomUtils.generateRandomHexString(42);
+        String key = SecureRandomUtils.generateRandomHexString(32);
+
+        String hmac = sut.generateHmac(message, key).block().getHmac();
+        String cachedHmac = sut.generateHmac(message, key).block().getHmac();
+        Cryptotool.Validity validity = sut.verifyHmac(message, key, hmac).block();
+
+        assertThat(cachedHmac, is(hmac));
+        assertThat(validity, is(Cryptotool.Validity.VALID));
+        assertThat(sut.getStats().getHitCount(), is(1L));
+        assertThat(sut.getStats().getMissCount(), is(2L));
+    }
+
+    @Test
+    public void itShouldDistinguishArguments() {
+        String key = SecureRandomUtils.generateRandomHexString(32);
+
+        String first = sut.generateHmac("AABB", key).block().getHmac();
+        String second = sut.generateHmac("AABBCC", key).block().getHmac();
+
+        assertThat(first, is(not(second)));
+        assertThat(sut.getStats().getHitCount(), is(0L));
+    }
+
+    @Test
+    public void itShouldCacheDeviceCertificates() {
+        String issuer = SecureRandomUtils.generateRandomIssuerInHex();
+        String appId = SecureRandomUtils.generateRandomAppId();
+        String serial = SecureRandomUtils.generateRandomSerial();
+
+        Cryptotool.DeviceCertificate first = sut.createDeviceCertificate(issuer, appId, serial,
+                keys.getPublicKey()).block();
+        Cryptotool.DeviceCertificate second = sut.createDeviceCertificate(issuer, appId, serial,
+                keys.getPublicKey()).block();
+
+        assertThat(second.getDeviceCertificate(), is(first.getDeviceCertificate()));
+        assertThat(sut.getStats().getHitCount(), is(1L));
+    }
+
+    @Test
+    public void itShouldEvictEntriesExceedingMaximumSize() {
+        String key = SecureRandomUtils.generateRandomHexString(32);
+        for (int i = 0; i < 10; i++) {
+            sut.generateHmac(SecureRandomUtils.generateRandomHexString(8), key).block();
+        }
+
+        assertThat(sut.getStats().getSize(), is(2L));
+        assertThat(sut.getStats().getEvictionCount(), is(8L));
+    }
+
+    @Test
+    public void itShouldExpireEntries() throws Exception {
+        CachingCryptotool cachingCryptotool = CachingCryptotool.builder()
+                .delegate(sut)
+                .expireAfterWrite(Duration.ofMillis(10L))
+                .build();
+
+        String message = SecureRandomUtils.generateRandomHexString(42);
+        String key = SecureRandomUtils.generateRandomHexString(32);
+
+        cachingCryptotool.generateHmac(message, key).block();
+        Thread.sleep(50L);
+        cachingCryptotool.generateHmac(message, key).block();
+
+        assertThat(cachingCryptotool.getStats().getHitCount(), is(0L));
+        assertThat(cachingCryptotool.getStats().getMissCount(), is(2L));
+    }
+}
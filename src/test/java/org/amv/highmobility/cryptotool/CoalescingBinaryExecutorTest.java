@@ -0,0 +1,109 @@
+package org.amv.highmobility.cryptotool;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CoalescingBinaryExecutorTest {
+
+    private AtomicInteger executionCount;
+
+    private CoalescingBinaryExecutor sut;
+
+    @Before
+    public void setUp() {
+        this.executionCount = new AtomicInteger();
+
+        BinaryExecutor delegate = args -> Flux.defer(() -> {
+            int execution = executionCount.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100L))
+                    .map(tick -> (ProcessResult) ProcessResultImpl.builder()
+                            .status(0)
+                            .output(Collections.singletonList(String.valueOf(execution)))
+                            .errors(Collections.emptyList())
+                            .build())
+                    .flux();
+        });
+
+        this.sut = CoalescingBinaryExecutor.builder()
+                .delegate(delegate)
+                .command("verify")
+                .build();
+    }
+
+    @Test
+    public void itShouldShareConcurrentIdenticalExecutions() {
+        List<String> outputs = executeConcurrently(Arrays.asList("verify", "AA", "BB"), 10);
+
+        assertThat(outputs, hasSize(10));
+        assertThat(outputs, everyItem(is("1")));
+        assertThat(executionCount.get(), is(1));
+        assertThat(sut.getInFlightCount(), is(0));
+    }
+
+    @Test
+    public void itShouldNotShareExecutionsWithDifferentArguments() {
+        Flux.merge(sut.execute(Arrays.asList("verify", "AA")), sut.execute(Arrays.asList("verify", "BB")))
+                .blockLast();
+
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void itShouldNotShareSequentialExecutions() {
+        sut.execute(Arrays.asList("verify", "AA")).blockLast();
+        sut.execute(Arrays.asList("verify", "AA")).blockLast();
+
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void itShouldNotShareExecutionsOfCommandsNotOptedIn() {
+        List<String> outputs = executeConcurrently(Arrays.asList("sign", "AA", "BB"), 10);
+
+        assertThat(outputs, hasSize(10));
+        assertThat(executionCount.get(), is(10));
+    }
+
+    @Test
+    public void itShouldKeepSharedExecutionRunningIfOneSubscriberCancels() {
+        List<String> args = Arrays.asList("verify", "AA");
+
+        sut.execute(args)
+                .timeout(Duration.ofMillis(10L))
+                .onErrorResume(e -> Flux.empty())
+                .subscribe();
+        ProcessResult processResult = sut.execute(args).blockLast();
+
+        assertThat(processResult.getStdoutLines(), is(Collections.singletonList("1")));
+        assertThat(executionCount.get(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itShouldNotAllowCoalescingKeys() {
+        CoalescingBinaryExecutor.builder()
+                .delegate(args -> Flux.empty())
+                .command("keys")
+                .build();
+    }
+
+    private List<String> executeConcurrently(List<String> args, int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> sut.execute(args))
+                .map(processResult -> processResult.getStdoutLines().get(0))
+                .collectList()
+                .block();
+    }
+}
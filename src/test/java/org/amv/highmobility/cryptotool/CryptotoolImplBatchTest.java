@@ -0,0 +1,238 @@
+package org.amv.highmobility.cryptotool;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.amv.highmobility.cryptotool.CryptotoolWithIssuer.AccessCertificateRequest;
+import org.amv.highmobility.cryptotool.CryptotoolWithIssuer.AccessCertificateRequestImpl;
+import org.amv.highmobility.cryptotool.CryptotoolWithIssuer.AccessCertificateResult;
+import org.amv.highmobility.cryptotool.engine.AccessCertificateBuilder;
+import org.amv.highmobility.cryptotool.engine.JcaKeysEngine;
+import org.amv.highmobility.cryptotool.engine.JcaSignatureEngine;
+import org.amv.highmobility.cryptotool.engine.SignatureEngine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+@RunWith(JUnitParamsRunner.class)
+public class CryptotoolImplBatchTest {
+
+    private SharedBinaryExecutor binaryExecutor;
+
+    private SignatureEngine signatureEngine;
+
+    private Cryptotool.Keys keys;
+
+    private CryptotoolWithIssuer sut;
+
+    @Before
+    public void setUp() throws Exception {
+        this.binaryExecutor = BinaryExecutorRegistry.getDefault().acquire();
+        this.signatureEngine = new JcaSignatureEngine();
+        this.keys = new JcaKeysEngine().generateKeys();
+
+        CryptotoolOptions options = CryptotoolOptionsImpl.builder()
+                .binaryExecutor(binaryExecutor)
+                .signatureEngine(signatureEngine)
+                .accessCertificateEngine(new AccessCertificateBuilder())
+                .build();
+
+        CryptotoolWithIssuer.CertificateIssuer certificateIssuer = CryptotoolWithIssuer.CertificateIssuerImpl.builder()
+                .name(SecureRandomUtils.generateRandomIssuer())
+                .keys(keys)
+                .build();
+
+        this.sut = new CryptotoolWithIssuerImpl(options, certificateIssuer);
+    }
+
+    @After
+    public void tearDown() {
+        binaryExecutor.close();
+    }
+
+    @Test
+    @Parameters({"1", "10", "1000"})
+    public void itShouldGenerateSignaturesInOrder(int requestCount) {
+        List<String> messages = generateRandomMessages(requestCount);
+
+        List<Cryptotool.Signature> signatures = this.sut.generateSignatures(toSignRequests(messages))
+                .collectList()
+                .block();
+
+        assertThat(signatures, hasSize(requestCount));
+        for (int i = 0; i < requestCount; i++) {
+            Cryptotool.Validity validity = this.signatureEngine.verify(messages.get(i),
+                    signatures.get(i).getSignature(), keys.getPublicKey());
+
+            assertThat(validity, is(Cryptotool.Validity.VALID));
+        }
+    }
+
+    @Test
+    public void itShouldGenerateSignaturesUnordered() {
+        List<String> messages = generateRandomMessages(1000);
+
+        BatchOptions batchOptions = BatchOptions.builder()
+                .ordered(false)
+                .parallelism(4)
+                .chunkSize(16)
+                .build();
+
+        List<Cryptotool.Signature> signatures = this.sut.generateSignatures(toSignRequests(messages), batchOptions)
+                .collectList()
+                .block();
+
+        assertThat(signatures, hasSize(1000));
+    }
+
+    @Test
+    public void itShouldRequestSignRequestsOnlyAsFastAsTheyAreProcessed() {
+        AtomicLong maxRequested = new AtomicLong();
+
+        BatchOptions batchOptions = BatchOptions.builder()
+                .parallelism(2)
+                .chunkSize(8)
+                .build();
+
+        Flux<Cryptotool.SignRequest> requests = toSignRequests(generateRandomMessages(100))
+                .doOnRequest(n -> maxRequested.accumulateAndGet(n, Math::max));
+
+        List<Cryptotool.Signature> signatures = this.sut.generateSignatures(requests, batchOptions)
+                .take(1)
+                .collectList()
+                .block();
+
+        assertThat(signatures, hasSize(1));
+        assertThat(maxRequested.get(), is(lessThanOrEqualTo(2L * 8L)));
+    }
+
+    @Test
+    @Parameters({"1", "10", "1000"})
+    public void itShouldVerifySignaturesInOrder(int requestCount) {
+        List<String> messages = generateRandomMessages(requestCount);
+
+        List<Cryptotool.Signature> signatures = this.sut.generateSignatures(toSignRequests(messages))
+                .collectList()
+                .block();
+
+        Flux<Cryptotool.VerifyRequest> requests = Flux.range(0, requestCount)
+                .map(i -> CryptotoolImpl.VerifyRequestImpl.builder()
+                        .message(i % 2 == 0 ? messages.get(i) : SecureRandomUtils.generateRandomHexString(32))
+                        .signature(signatures.get(i).getSignature())
+                        .publicKey(keys.getPublicKey())
+                        .build());
+
+        List<Cryptotool.Validity> validities = this.sut.verifySignatures(requests)
+                .collectList()
+                .block();
+
+        assertThat(validities, hasSize(requestCount));
+        for (int i = 0; i < requestCount; i++) {
+            assertThat(validities.get(i), is(i % 2 == 0 ? Cryptotool.Validity.VALID : Cryptotool.Validity.INVALID));
+        }
+    }
+
+    @Test
+    @Parameters({"1", "10", "1000"})
+    public void itShouldCreateAccessCertificatesInOrder(int requestCount) {
+        List<AccessCertificateRequest> requests = generateAccessCertificateRequests(requestCount);
+
+        List<AccessCertificateResult> results = this.sut.createAccessCertificatesV1(Flux.fromIterable(requests))
+                .collectList()
+                .block();
+
+        assertThat(results, hasSize(requestCount));
+        for (int i = 0; i < requestCount; i++) {
+            AccessCertificateResult result = results.get(i);
+
+            assertThat(result.isSuccess(), is(true));
+            assertThat(result.getRequest(), is(requests.get(i)));
+
+            String accessCertificate = result.getAccessCertificate()
+                    .map(Cryptotool.AccessCertificate::getAccessCertificate)
+                    .orElseThrow(IllegalStateException::new);
+            assertThat(accessCertificate.substring(10, 28), is(requests.get(i).getProvidingSerial().toUpperCase()));
+        }
+    }
+
+    @Test
+    public void itShouldCaptureErrorsPerAccessCertificate() {
+        List<AccessCertificateRequest> requests = generateAccessCertificateRequests(3);
+        AccessCertificateRequest invalidRequest = AccessCertificateRequestImpl.builder()
+                .providingSerial("invalid")
+                .gainingSerial(SecureRandomUtils.generateRandomSerial())
+                .gainingPublicKey(keys.getPublicKey())
+                .startDate(LocalDateTime.now())
+                .endDate(LocalDateTime.now().plusDays(1))
+                .permissions(PermissionsImpl.none())
+                .build();
+        requests.add(1, invalidRequest);
+
+        BatchOptions batchOptions = BatchOptions.builder()
+                .parallelism(2)
+                .build();
+
+        List<AccessCertificateResult> results = this.sut
+                .createAccessCertificatesV1(Flux.fromIterable(requests), batchOptions)
+                .collectList()
+                .block();
+
+        assertThat(results, hasSize(4));
+        assertThat(results.get(0).isSuccess(), is(true));
+        assertThat(results.get(1).isSuccess(), is(false));
+        assertThat(results.get(1).getRequest(), is(invalidRequest));
+        assertThat(results.get(1).getAccessCertificate().isPresent(), is(false));
+        assertThat(results.get(1).getError().orElse(null), is(instanceOf(IllegalStateException.class)));
+        assertThat(results.get(2).isSuccess(), is(true));
+        assertThat(results.get(3).isSuccess(), is(true));
+    }
+
+    private List<AccessCertificateRequest> generateAccessCertificateRequests(int count) {
+        Cryptotool.Permissions permissions = PermissionsImpl.builder()
+                .doorLocksRead(true)
+                .doorLocksWrite(true)
+                .build();
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = startDate.plusDays(1);
+
+        return IntStream.range(0, count)
+                .mapToObj(i -> (AccessCertificateRequest) AccessCertificateRequestImpl.builder()
+                        .providingSerial(SecureRandomUtils.generateRandomSerial())
+                        .gainingSerial(SecureRandomUtils.generateRandomSerial())
+                        .gainingPublicKey(keys.getPublicKey())
+                        .startDate(startDate)
+                        .endDate(endDate)
+                        .permissions(permissions)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private Flux<Cryptotool.SignRequest> toSignRequests(List<String> messages) {
+        return Flux.fromIterable(messages)
+                .map(message -> CryptotoolImpl.SignRequestImpl.builder()
+                        .message(message)
+                        .privateKey(keys.getPrivateKey())
+                        .build());
+    }
+
+    private static List<String> generateRandomMessages(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> SecureRandomUtils.generateRandomHexString(32))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,68 @@
+package org.amv.highmobility.cryptotool;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CryptotoolImplMetricsTest {
+
+    private RecordingCryptotoolMetrics metrics;
+
+    @Before
+    public void setUp() {
+        this.metrics = new RecordingCryptotoolMetrics();
+    }
+
+    @Test
+    public void itShouldRecordParseTime() {
+        BinaryExecutor binaryExecutor = args -> Flux.just(ProcessResultImpl.builder()
+                .status(0)
+                .output(Arrays.asList("PRIVATE: AA", "PUBLIC: BB"))
+                .errors(Collections.emptyList())
+                .build());
+
+        Cryptotool.Keys keys = createCryptotool(binaryExecutor, Duration.ofSeconds(3L))
+                .generateKeys()
+                .block();
+
+        assertThat(keys.getPublicKey(), is("BB"));
+        assertThat(metrics.get("parse", "keys"), hasSize(1));
+        assertThat(metrics.get("timeout", "keys"), hasSize(0));
+    }
+
+    @Test
+    public void itShouldRecordTimeout() {
+        BinaryExecutor binaryExecutor = args -> Flux.never();
+
+        try {
+            createCryptotool(binaryExecutor, Duration.ofMillis(100L))
+                    .generateKeys()
+                    .block();
+            Assert.fail("Should have thrown timeout exception");
+        } catch (Exception e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+
+        assertThat(metrics.get("timeout", "keys"), hasSize(1));
+        assertThat(metrics.get("parse", "keys"), hasSize(0));
+    }
+
+    private Cryptotool createCryptotool(BinaryExecutor binaryExecutor, Duration commandTimeout) {
+        return new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                .binaryExecutor(binaryExecutor)
+                .commandTimeout(commandTimeout)
+                .metrics(metrics)
+                .build());
+    }
+}
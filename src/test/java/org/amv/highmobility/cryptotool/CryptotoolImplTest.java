@@ -2,21 +2,26 @@ package org.amv.highmobility.cryptotool;
 
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
 import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
+import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.event.Level;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.Matchers.equalToIgnoringCase;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 
 @RunWith(JUnitParamsRunner.class)
@@ -25,13 +30,22 @@ public class CryptotoolImplTest {
         System.setProperty(org.slf4j.impl.SimpleLogger.DEFAULT_LOG_LEVEL_KEY, Level.DEBUG.name());
     }
 
+    private static SharedBinaryExecutor binaryExecutor;
     private static CryptotoolOptions cryptotoolOptions;
 
     private Cryptotool sut;
 
     @BeforeClass
-    public static void setUpClass() {
-        CryptotoolImplTest.cryptotoolOptions = CryptotoolOptionsImpl.createDefault();
+    public static void setUpClass() throws Exception {
+        CryptotoolImplTest.binaryExecutor = BinaryExecutorRegistry.getDefault().acquire();
+        CryptotoolImplTest.cryptotoolOptions = CryptotoolOptionsImpl.builder()
+                .binaryExecutor(binaryExecutor)
+                .build();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        binaryExecutor.close();
     }
 
     @Before
@@ -41,7 +55,9 @@ public class CryptotoolImplTest {
 
     @Test
     public void itShouldHaveAnElegantConstructionMechanism() {
-        Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.createDefault());
+        Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                .binaryExecutor(binaryExecutor)
+                .build());
 
         assertThat(cryptotool, Matchers.is(Matchers.notNullValue()));
     }
@@ -85,6 +101,24 @@ public class CryptotoolImplTest {
         assertThat(signature.getSignature(), is(notNullValue()));
     }
 
+    @Test
+    public void itShouldGenerateSignaturesInBatch() {
+        Cryptotool.Keys keys = this.sut.generateKeys()
+                .block();
+
+        Flux<Cryptotool.SignRequest> requests = Flux.range(0, 10)
+                .map(i -> CryptotoolImpl.SignRequestImpl.builder()
+                        .message(SecureRandomUtils.generateRandomHexString(42))
+                        .privateKey(keys.getPrivateKey())
+                        .build());
+
+        List<Cryptotool.Signature> signatures = this.sut.generateSignatures(requests)
+                .collectList()
+                .block();
+
+        assertThat(signatures, hasSize(10));
+    }
+
     @Test
     @Parameters({"1", "42", "256"})
     public void itShouldVerifySignature(int byteCount) {
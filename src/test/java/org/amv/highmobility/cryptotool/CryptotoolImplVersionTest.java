@@ -0,0 +1,118 @@
+package org.amv.highmobility.cryptotool;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CryptotoolImplVersionTest {
+
+    private AtomicInteger executionCount;
+    private AtomicBoolean failing;
+
+    private BinaryExecutor binaryExecutor;
+
+    @Before
+    public void setUp() {
+        this.executionCount = new AtomicInteger();
+        this.failing = new AtomicBoolean();
+
+        this.binaryExecutor = args -> Flux.defer(() -> {
+            executionCount.incrementAndGet();
+            if (failing.get()) {
+                return Flux.error(new IllegalStateException("error while loading shared libraries"));
+            }
+            return Flux.just(ProcessResultImpl.builder()
+                    .status(0)
+                    .output(Collections.singletonList("Cryptotool version 1.2.3"))
+                    .errors(Collections.emptyList())
+                    .build());
+        });
+    }
+
+    @Test
+    public void itShouldExecuteBinaryOnlyOnce() {
+        CryptotoolImpl sut = createCryptotool(false);
+
+        for (int i = 0; i < 10; i++) {
+            Cryptotool.Version version = sut.version().block();
+            assertThat(version.getFullVersionString(), is("1.2.3"));
+        }
+
+        assertThat(executionCount.get(), is(1));
+    }
+
+    @Test
+    public void itShouldExecuteBinaryOnlyOnceWhenCalledConcurrently() {
+        for (int run = 0; run < 50; run++) {
+            executionCount.set(0);
+            CryptotoolImpl sut = createCryptotool(false);
+
+            Flux.range(0, 32)
+                    .flatMap(i -> sut.version().subscribeOn(Schedulers.parallel()))
+                    .blockLast();
+
+            assertThat(executionCount.get(), is(1));
+        }
+    }
+
+    @Test
+    public void itShouldExecuteBinaryOnRefresh() {
+        CryptotoolImpl sut = createCryptotool(false);
+
+        sut.version().block();
+        sut.refreshVersion().block();
+        sut.version().block();
+
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void itShouldNotCacheFailures() {
+        CryptotoolImpl sut = createCryptotool(false);
+
+        failing.set(true);
+        sut.version()
+                .onErrorResume(e -> Mono.empty())
+                .block();
+
+        failing.set(false);
+        Cryptotool.Version version = sut.version().block();
+
+        assertThat(version.getFullVersionString(), is("1.2.3"));
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void itShouldProbeBinaryOnStartup() {
+        CryptotoolImpl sut = createCryptotool(true);
+
+        assertThat(executionCount.get(), is(1));
+
+        sut.version().block();
+
+        assertThat(executionCount.get(), is(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldFailFastIfBinaryCannotBeExecuted() {
+        failing.set(true);
+
+        createCryptotool(true);
+    }
+
+    private CryptotoolImpl createCryptotool(boolean probeBinaryOnStartup) {
+        return new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                .binaryExecutor(binaryExecutor)
+                .probeBinaryOnStartup(probeBinaryOnStartup)
+                .build());
+    }
+}
@@ -1,5 +1,6 @@
 package org.amv.highmobility.cryptotool;
 
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.Test;
 
@@ -18,18 +19,22 @@ public class CryptotoolOptionsImplTest {
         assertThat(cryptotoolOptions, is(notNullValue()));
         assertThat(cryptotoolOptions.getBinaryExecutor(), is(notNullValue()));
         assertThat(cryptotoolOptions.getCommandTimeout(), is(Duration.ofSeconds(3L)));
+
+        ((SharedBinaryExecutor) cryptotoolOptions.getBinaryExecutor()).close();
     }
 
     @Test
-    public void itShouldHaveAnElegantConstructionMechanism() {
+    public void itShouldHaveAnElegantConstructionMechanism() throws Exception {
         long commandTimeoutInSeconds = RandomUtils.nextLong();
-        CryptotoolOptions cryptotoolOptions = CryptotoolOptionsImpl.builder()
-                .binaryExecutor(BinaryExecutorImpl.createDefault())
-                .commandTimeout(Duration.ofSeconds(commandTimeoutInSeconds))
-                .build();
-
-        assertThat(cryptotoolOptions, is(notNullValue()));
-        assertThat(cryptotoolOptions.getBinaryExecutor(), is(notNullValue()));
-        assertThat(cryptotoolOptions.getCommandTimeout(), is(Duration.ofSeconds(commandTimeoutInSeconds)));
+        try (SharedBinaryExecutor binaryExecutor = BinaryExecutorRegistry.getDefault().acquire()) {
+            CryptotoolOptions cryptotoolOptions = CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(binaryExecutor)
+                    .commandTimeout(Duration.ofSeconds(commandTimeoutInSeconds))
+                    .build();
+
+            assertThat(cryptotoolOptions, is(notNullValue()));
+            assertThat(cryptotoolOptions.getBinaryExecutor(), is(notNullValue()));
+            assertThat(cryptotoolOptions.getCommandTimeout(), is(Duration.ofSeconds(commandTimeoutInSeconds)));
+        }
     }
 }
\ No newline at end of file
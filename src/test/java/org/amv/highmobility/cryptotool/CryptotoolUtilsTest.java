@@ -5,6 +5,7 @@ import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Test;
 
+import java.time.LocalDateTime;
 import java.util.Base64;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -49,4 +50,13 @@ public class CryptotoolUtilsTest {
 
         assertThat(valueBase64, is(equalTo("QUJDREVG")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void encodeAsHex() {
+        LocalDateTime dateTime = LocalDateTime.of(2017, 12, 31, 23, 59, 42);
+
+        String dateTimeHex = CryptotoolUtils.encodeAsHex(dateTime);
+
+        assertThat(dateTimeHex, is(equalTo("110c1f173b")));
+    }
+}
@@ -2,7 +2,9 @@ package org.amv.highmobility.cryptotool;
 
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
 import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -22,13 +24,22 @@ public class CryptotoolWithIssuerImplTest {
         System.setProperty(org.slf4j.impl.SimpleLogger.DEFAULT_LOG_LEVEL_KEY, Level.DEBUG.name());
     }
 
+    private static SharedBinaryExecutor binaryExecutor;
     private static CryptotoolOptions cryptotoolOptions;
 
     private CryptotoolWithIssuer sut;
 
     @BeforeClass
-    public static void setUpClass() {
-        CryptotoolWithIssuerImplTest.cryptotoolOptions = CryptotoolOptionsImpl.createDefault();
+    public static void setUpClass() throws Exception {
+        CryptotoolWithIssuerImplTest.binaryExecutor = BinaryExecutorRegistry.getDefault().acquire();
+        CryptotoolWithIssuerImplTest.cryptotoolOptions = CryptotoolOptionsImpl.builder()
+                .binaryExecutor(binaryExecutor)
+                .build();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        binaryExecutor.close();
     }
 
     @Before
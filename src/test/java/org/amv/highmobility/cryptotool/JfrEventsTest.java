@@ -0,0 +1,131 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.io.Files;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class JfrEventsTest {
+
+    private static final String PROCESS_EXECUTION_EVENT = "org.amv.highmobility.cryptotool.ProcessExecution";
+    private static final String COMMAND_EXECUTION_EVENT = "org.amv.highmobility.cryptotool.CommandExecution";
+
+    @Before
+    public void setUp() {
+        assumeTrue(JfrEvents.isAvailable());
+    }
+
+    @Test
+    public void itShouldNotBeginEventsIfNotRecording() {
+        assertThat(JfrEvents.beginProcessExecution() == null, is(true));
+        assertThat(JfrEvents.beginCommandExecution() == null, is(true));
+    }
+
+    @Test
+    public void itShouldNotBeginEventsIfNotEnabledInRecording() throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.start();
+
+            assertThat(JfrEvents.beginProcessExecution() == null, is(true));
+            assertThat(JfrEvents.beginCommandExecution() == null, is(true));
+        }
+    }
+
+    @Test
+    public void itShouldNotBeginEventsWithDefaultSettings() throws Exception {
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+
+            assertThat(JfrEvents.beginProcessExecution() == null, is(true));
+            assertThat(JfrEvents.beginCommandExecution() == null, is(true));
+        }
+    }
+
+    @Test
+    public void itShouldEmitProcessExecutionEvent() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        BinaryExecutorImpl binaryExecutor = BinaryExecutorImpl.builder()
+                .binary(BinaryImpl.builder()
+                        .file(new File("/bin/sh"))
+                        .build())
+                .workingDirectory(Files.createTempDir())
+                .build();
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PROCESS_EXECUTION_EVENT);
+            recording.start();
+
+            binaryExecutor.execute(Arrays.asList("-c", "exit 3")).blockLast();
+
+            recording.stop();
+            events = readEvents(recording, PROCESS_EXECUTION_EVENT);
+        } finally {
+            binaryExecutor.close();
+        }
+
+        assertThat(events, hasSize(1));
+
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("command"), is("-c"));
+        assertThat(event.getInt("argumentsSize"), is("-cexit 3".length()));
+        assertThat(event.getInt("exitStatus"), is(3));
+        assertThat(event.getBoolean("cancelled"), is(false));
+    }
+
+    @Test
+    public void itShouldEmitCommandExecutionEventOnTimeout() throws Exception {
+        Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                .binaryExecutor(args -> Flux.never())
+                .commandTimeout(Duration.ofMillis(100L))
+                .build());
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(COMMAND_EXECUTION_EVENT);
+            recording.start();
+
+            cryptotool.generateKeys()
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+
+            recording.stop();
+            events = readEvents(recording, COMMAND_EXECUTION_EVENT);
+        }
+
+        assertThat(events, hasSize(1));
+
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("command"), is("keys"));
+        assertThat(event.getBoolean("timedOut"), is(true));
+        assertThat(event.getBoolean("failed"), is(true));
+    }
+
+    private static List<RecordedEvent> readEvents(Recording recording, String eventName) throws Exception {
+        Path file = File.createTempFile("cryptotool", ".jfr").toPath();
+        recording.dump(file);
+
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .collect(Collectors.toList());
+    }
+}
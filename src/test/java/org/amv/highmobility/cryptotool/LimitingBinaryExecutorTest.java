@@ -0,0 +1,191 @@
+package org.amv.highmobility.cryptotool;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.amv.highmobility.cryptotool.PrioritizingBinaryExecutor.priorityClass;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class LimitingBinaryExecutorTest {
+
+    private AtomicInteger concurrentExecutions;
+    private AtomicInteger maxConcurrentExecutions;
+
+    @Before
+    public void setUp() {
+        this.concurrentExecutions = new AtomicInteger();
+        this.maxConcurrentExecutions = new AtomicInteger();
+    }
+
+    @Test
+    public void itShouldNotExceedLimit() {
+        LimitingBinaryExecutor sut = LimitingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(20L)))
+                .initialLimit(2)
+                .minLimit(2)
+                .maxLimit(2)
+                .build();
+
+        List<ProcessResult> processResults = executeConcurrently(sut, 20);
+
+        assertThat(processResults, hasSize(20));
+        assertThat(maxConcurrentExecutions.get(), is(2));
+        assertThat(sut.getInFlightCount(), is(0));
+        assertThat(sut.getQueueLength(), is(0));
+    }
+
+    @Test
+    public void itShouldRejectExecutionsWhenQueueIsFull() {
+        LimitingBinaryExecutor sut = LimitingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(200L)))
+                .initialLimit(1)
+                .maxLimit(1)
+                .maxQueueLength(1)
+                .build();
+
+        List<Throwable> errors = Flux.range(0, 3)
+                .flatMap(i -> sut.execute(Arrays.asList("sign"))
+                        .map(processResult -> (Throwable) new IllegalStateException("Unexpected success"))
+                        .onErrorResume(e -> Flux.just(e))
+                        .filter(e -> e instanceof RejectedExecutionException))
+                .collectList()
+                .block();
+
+        assertThat(errors, hasSize(1));
+    }
+
+    @Test
+    public void itShouldDecreaseLimitOnSlowExecutions() {
+        LimitingBinaryExecutor sut = LimitingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(20L)))
+                .initialLimit(8)
+                .latencyThreshold(Duration.ofMillis(5L))
+                .backoffRatio(0.5d)
+                .build();
+
+        executeConcurrently(sut, 20);
+
+        assertThat(sut.getLimit(), is(1));
+    }
+
+    @Test
+    public void itShouldDecreaseLimitOnCancelledExecutions() {
+        LimitingBinaryExecutor sut = LimitingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofSeconds(10L)))
+                .initialLimit(4)
+                .backoffRatio(0.5d)
+                .build();
+
+        sut.execute(Arrays.asList("sign"))
+                .timeout(Duration.ofMillis(50L))
+                .onErrorResume(e -> Flux.empty())
+                .blockLast();
+
+        assertThat(sut.getLimit(), is(2));
+        assertThat(sut.getInFlightCount(), is(0));
+    }
+
+    @Test
+    public void itShouldIncreaseLimitOnFastExecutions() {
+        LimitingBinaryExecutor sut = LimitingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(5L)))
+                .initialLimit(1)
+                .maxLimit(4)
+                .build();
+
+        executeConcurrently(sut, 50);
+
+        assertThat(sut.getLimit(), is(4));
+        assertThat(maxConcurrentExecutions.get(), is(lessThanOrEqualTo(4)));
+        assertThat(maxConcurrentExecutions.get(), is(greaterThan(1)));
+    }
+
+    @Test
+    public void itShouldRemoveCancelledExecutionsFromQueue() {
+        LimitingBinaryExecutor sut = LimitingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(200L)))
+                .initialLimit(1)
+                .maxLimit(1)
+                .build();
+
+        sut.execute(Arrays.asList("sign")).subscribe();
+        sut.execute(Arrays.asList("sign")).subscribe().dispose();
+
+        assertThat(sut.getInFlightCount(), is(1));
+        assertThat(sut.getQueueLength(), is(0));
+    }
+
+    @Test
+    public void itShouldPassSubscriberContextToDelegate() {
+        PrioritizingBinaryExecutor prioritizingBinaryExecutor = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofSeconds(10L)))
+                .maxConcurrentExecutions(2)
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("interactive")
+                        .reservedSlots(1)
+                        .build())
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("bulk")
+                        .build())
+                .build();
+
+        LimitingBinaryExecutor sut = LimitingBinaryExecutor.builder()
+                .delegate(prioritizingBinaryExecutor)
+                .initialLimit(16)
+                .maxLimit(16)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            sut.execute(Arrays.asList("sign"))
+                    .subscriberContext(priorityClass("bulk"))
+                    .subscribe();
+        }
+
+        assertThat(prioritizingBinaryExecutor.getInFlightCount("bulk"), is(1));
+        assertThat(prioritizingBinaryExecutor.getQueueLength("bulk"), is(9));
+
+        sut.execute(Arrays.asList("sign"))
+                .subscriberContext(priorityClass("interactive"))
+                .subscribe();
+
+        assertThat(prioritizingBinaryExecutor.getInFlightCount("interactive"), is(1));
+        assertThat(prioritizingBinaryExecutor.getQueueLength("interactive"), is(0));
+    }
+
+    private List<ProcessResult> executeConcurrently(LimitingBinaryExecutor sut, int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> sut.execute(Arrays.asList("sign")))
+                .collectList()
+                .block();
+    }
+
+    private BinaryExecutor delayingBinaryExecutor(Duration delay) {
+        return args -> Flux.defer(() -> {
+            int current = concurrentExecutions.incrementAndGet();
+            maxConcurrentExecutions.accumulateAndGet(current, Math::max);
+
+            return Mono.delay(delay)
+                    .map(tick -> (ProcessResult) ProcessResultImpl.builder()
+                            .status(0)
+                            .output(Collections.emptyList())
+                            .errors(Collections.emptyList())
+                            .build())
+                    .doOnTerminate(concurrentExecutions::decrementAndGet)
+                    .doOnCancel(concurrentExecutions::decrementAndGet)
+                    .flux();
+        });
+    }
+}
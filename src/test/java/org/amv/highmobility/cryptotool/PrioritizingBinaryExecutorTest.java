@@ -0,0 +1,246 @@
+package org.amv.highmobility.cryptotool;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.amv.highmobility.cryptotool.PrioritizingBinaryExecutor.priorityClass;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class PrioritizingBinaryExecutorTest {
+
+    private List<String> startedPriorityClasses;
+
+    @Before
+    public void setUp() {
+        this.startedPriorityClasses = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    public void itShouldKeepReservedSlotsFreeForInteractiveExecutions() {
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofSeconds(10L)))
+                .maxConcurrentExecutions(2)
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("interactive")
+                        .reservedSlots(1)
+                        .build())
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("bulk")
+                        .build())
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            sut.execute(Arrays.asList("sign"))
+                    .subscriberContext(priorityClass("bulk"))
+                    .subscribe();
+        }
+
+        assertThat(sut.getInFlightCount("bulk"), is(1));
+        assertThat(sut.getQueueLength("bulk"), is(9));
+
+        sut.execute(Arrays.asList("sign"))
+                .subscriberContext(priorityClass("interactive"))
+                .subscribe();
+
+        assertThat(sut.getInFlightCount("interactive"), is(1));
+        assertThat(sut.getQueueLength("interactive"), is(0));
+    }
+
+    @Test
+    public void itShouldDispatchFreeSlotsAccordingToWeights() {
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(5L)))
+                .maxConcurrentExecutions(1)
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("interactive")
+                        .weight(3)
+                        .build())
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("bulk")
+                        .weight(1)
+                        .build())
+                .build();
+
+        Flux.range(0, 40)
+                .flatMap(i -> sut.execute(Arrays.asList("sign"))
+                        .subscriberContext(priorityClass(i % 2 == 0 ? "interactive" : "bulk")), 40)
+                .blockLast();
+
+        assertThat(startedPriorityClasses, hasSize(40));
+
+        long interactiveCount = startedPriorityClasses.subList(0, 16).stream()
+                .filter("interactive"::equals)
+                .count();
+        assertThat(interactiveCount, is(allOf(greaterThanOrEqualTo(11L), lessThanOrEqualTo(13L))));
+    }
+
+    @Test
+    public void itShouldNotLetIdleLanesCatchUpOnUnusedSlots() {
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(1L)))
+                .maxConcurrentExecutions(1)
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("interactive")
+                        .build())
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("bulk")
+                        .build())
+                .build();
+
+        Flux.range(0, 100)
+                .concatMap(i -> sut.execute(Arrays.asList("sign"))
+                        .subscriberContext(priorityClass("interactive")))
+                .blockLast();
+
+        startedPriorityClasses.clear();
+
+        Flux.range(0, 40)
+                .flatMap(i -> sut.execute(Arrays.asList("sign"))
+                        .subscriberContext(priorityClass(i < 20 ? "bulk" : "interactive")), 40)
+                .blockLast();
+
+        assertThat(startedPriorityClasses, hasSize(40));
+
+        long interactiveCount = startedPriorityClasses.subList(0, 20).stream()
+                .filter("interactive"::equals)
+                .count();
+        assertThat(interactiveCount, is(allOf(greaterThanOrEqualTo(9L), lessThanOrEqualTo(11L))));
+    }
+
+    @Test
+    public void itShouldScheduleUnknownPriorityClassesInDefaultLane() {
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofSeconds(10L)))
+                .maxConcurrentExecutions(1)
+                .build();
+
+        sut.execute(Arrays.asList("sign")).subscribe();
+        sut.execute(Arrays.asList("sign"))
+                .subscriberContext(priorityClass("unknown"))
+                .subscribe();
+
+        assertThat(sut.getInFlightCount(PrioritizingBinaryExecutor.DEFAULT_PRIORITY_CLASS), is(1));
+        assertThat(sut.getQueueLength(PrioritizingBinaryExecutor.DEFAULT_PRIORITY_CLASS), is(1));
+    }
+
+    @Test
+    public void itShouldRejectExecutionsWhenQueueOfLaneIsFull() {
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(200L)))
+                .maxConcurrentExecutions(1)
+                .maxQueueLength(1)
+                .build();
+
+        List<Throwable> errors = Flux.range(0, 3)
+                .flatMap(i -> sut.execute(Arrays.asList("sign"))
+                        .map(processResult -> (Throwable) new IllegalStateException("Unexpected success"))
+                        .onErrorResume(e -> Flux.just(e))
+                        .filter(e -> e instanceof RejectedExecutionException))
+                .collectList()
+                .block();
+
+        assertThat(errors, hasSize(1));
+    }
+
+    @Test
+    public void itShouldRemoveCancelledExecutionsFromQueue() {
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(200L)))
+                .maxConcurrentExecutions(1)
+                .build();
+
+        sut.execute(Arrays.asList("sign")).subscribe();
+        sut.execute(Arrays.asList("sign")).subscribe().dispose();
+
+        assertThat(sut.getInFlightCount(PrioritizingBinaryExecutor.DEFAULT_PRIORITY_CLASS), is(1));
+        assertThat(sut.getQueueLength(PrioritizingBinaryExecutor.DEFAULT_PRIORITY_CLASS), is(0));
+    }
+
+    @Test
+    public void itShouldRecordMetricsPerLane() {
+        RecordingCryptotoolMetrics metrics = new RecordingCryptotoolMetrics();
+
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(delayingBinaryExecutor(Duration.ofMillis(5L)))
+                .maxConcurrentExecutions(1)
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("bulk")
+                        .build())
+                .metrics(metrics)
+                .build();
+
+        Flux.range(0, 3)
+                .flatMap(i -> sut.execute(Arrays.asList("sign"))
+                        .subscriberContext(priorityClass("bulk")))
+                .blockLast();
+
+        assertThat(metrics.get("laneWait", "bulk"), hasSize(3));
+        assertThat(metrics.get("laneRun", "bulk"), hasSize(3));
+    }
+
+    @Test
+    public void itShouldUsePriorityClassOfCryptotoolOptions() {
+        RecordingCryptotoolMetrics metrics = new RecordingCryptotoolMetrics();
+
+        PrioritizingBinaryExecutor sut = PrioritizingBinaryExecutor.builder()
+                .delegate(args -> Flux.just(ProcessResultImpl.builder()
+                        .status(0)
+                        .output(Arrays.asList("PRIVATE: AA", "PUBLIC: BB"))
+                        .errors(Collections.emptyList())
+                        .build()))
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("interactive")
+                        .build())
+                .lane(PrioritizingBinaryExecutor.Lane.builder()
+                        .name("bulk")
+                        .build())
+                .metrics(metrics)
+                .build();
+
+        CryptotoolOptions bulkOptions = CryptotoolOptionsImpl.builder()
+                .binaryExecutor(sut)
+                .priorityClass("bulk")
+                .build();
+
+        new CryptotoolImpl(bulkOptions).generateKeys().block();
+
+        assertThat(metrics.get("laneWait", "bulk"), hasSize(1));
+        assertThat(metrics.get("laneWait", "interactive"), hasSize(0));
+
+        new CryptotoolImpl(bulkOptions).generateKeys()
+                .subscriberContext(priorityClass("interactive"))
+                .block();
+
+        assertThat(metrics.get("laneWait", "bulk"), hasSize(1));
+        assertThat(metrics.get("laneWait", "interactive"), hasSize(1));
+    }
+
+    private BinaryExecutor delayingBinaryExecutor(Duration delay) {
+        return args -> Flux.<ProcessResult>create(sink -> {
+            startedPriorityClasses.add(sink.currentContext().getOrDefault(
+                    PrioritizingBinaryExecutor.PRIORITY_CLASS_KEY, PrioritizingBinaryExecutor.DEFAULT_PRIORITY_CLASS));
+
+            sink.onDispose(Mono.delay(delay)
+                    .map(tick -> (ProcessResult) ProcessResultImpl.builder()
+                            .status(0)
+                            .output(Collections.emptyList())
+                            .errors(Collections.emptyList())
+                            .build())
+                    .subscribe(sink::next, sink::error, sink::complete));
+        });
+    }
+}
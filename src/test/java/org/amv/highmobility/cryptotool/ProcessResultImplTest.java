@@ -0,0 +1,55 @@
+package org.amv.highmobility.cryptotool;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ProcessResultImplTest {
+
+    @Test
+    public void itShouldFilterBlankStdoutLines() {
+        ProcessResult processResult = ProcessResultImpl.builder()
+                .output(Arrays.asList("first", "", "\n", "  ", "second"))
+                .errors(Arrays.asList())
+                .build();
+
+        List<String> stdoutLines = processResult.getStdoutLines();
+
+        assertThat(stdoutLines, is(Arrays.asList("first", "second")));
+        assertThat(processResult.getStdoutLines(), is(sameInstance(stdoutLines)));
+    }
+
+    @Test
+    public void itShouldIgnoreBlankAndDebugStderrLines() {
+        ProcessResult processResult = ProcessResultImpl.builder()
+                .output(Arrays.asList())
+                .errors(Arrays.asList("", "DEBUG: message", " debug: message"))
+                .build();
+
+        assertThat(processResult.getStderrLines().isEmpty(), is(true));
+        assertThat(processResult.hasErrors(), is(false));
+    }
+
+    @Test
+    public void itShouldHaveErrors() {
+        ProcessResult processResult = ProcessResultImpl.builder()
+                .output(Arrays.asList())
+                .errors(Arrays.asList("debug: message", "error"))
+                .build();
+
+        assertThat(processResult.getStderrLines(), is(Arrays.asList("error")));
+        assertThat(processResult.hasErrors(), is(true));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void itShouldFailWithoutOutput() {
+        ProcessResultImpl.builder()
+                .errors(Arrays.asList())
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package org.amv.highmobility.cryptotool;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects all recorded values per metric name and command name.
+ */
+class RecordingCryptotoolMetrics implements CryptotoolMetrics {
+    private final Map<String, List<Object>> values = new ConcurrentHashMap<>();
+
+    List<Object> get(String metric, String command) {
+        return values.computeIfAbsent(metric + ":" + command, key -> new CopyOnWriteArrayList<>());
+    }
+
+    @Override
+    public void recordSpawnTime(String command, Duration duration) {
+        get("spawn", command).add(duration);
+    }
+
+    @Override
+    public void recordRunTime(String command, Duration duration) {
+        get("run", command).add(duration);
+    }
+
+    @Override
+    public void recordDrainTime(String command, Duration duration) {
+        get("drain", command).add(duration);
+    }
+
+    @Override
+    public void recordParseTime(String command, Duration duration) {
+        get("parse", command).add(duration);
+    }
+
+    @Override
+    public void recordExitStatus(String command, int status) {
+        get("status", command).add(status);
+    }
+
+    @Override
+    public void recordTimeout(String command) {
+        get("timeout", command).add(true);
+    }
+
+    @Override
+    public void recordStderrOutput(String command) {
+        get("stderr", command).add(true);
+    }
+
+    @Override
+    public void recordLaneWaitTime(String lane, Duration duration) {
+        get("laneWait", lane).add(duration);
+    }
+
+    @Override
+    public void recordLaneRunTime(String lane, Duration duration) {
+        get("laneRun", lane).add(duration);
+    }
+}
@@ -0,0 +1,119 @@
+package org.amv.highmobility.cryptotool;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class SpawnHelperBinaryExecutorTest {
+
+    private SpawnHelperBinaryExecutor sut;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        this.sut = SpawnHelperBinaryExecutor.builder()
+                .binary(BinaryImpl.builder()
+                        .file(new File("/bin/sh"))
+                        .build())
+                .workingDirectory(Files.createTempDir())
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        if (this.sut != null) {
+            this.sut.close();
+        }
+    }
+
+    @Test
+    public void itShouldReadStdoutStderrAndExitStatus() {
+        ProcessResultImpl processResult = (ProcessResultImpl) this.sut.execute(
+                Arrays.asList("-c", "echo out; echo err 1>&2; exit 3"))
+                .blockLast();
+
+        assertThat(processResult.getStatus(), is(3));
+        assertThat(processResult.getStdoutLines(), is(Arrays.asList("out")));
+        assertThat(processResult.getStderrLines(), is(Arrays.asList("err")));
+    }
+
+    @Test
+    public void itShouldPassArgumentsUnchanged() {
+        ProcessResult processResult = this.sut.execute(Arrays.asList("-c", "echo \"$0\"", "a b 'c'"))
+                .blockLast();
+
+        assertThat(processResult.getStdoutLines(), is(Arrays.asList("a b 'c'")));
+    }
+
+    @Test(timeout = 20_000L)
+    public void itShouldExecuteConcurrently() {
+        List<ProcessResult> processResults = Flux.range(0, 20)
+                .flatMap(i -> this.sut.execute(Arrays.asList("-c", "sleep 0.2; echo " + i)))
+                .collectList()
+                .block();
+
+        assertThat(processResults, hasSize(20));
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldNotDeliverResultsOnReaderThread() {
+        ProcessResult processResult = this.sut.execute(Arrays.asList("-c", "echo outer"))
+                .map(outer -> this.sut.execute(Arrays.asList("-c", "echo inner")).blockLast())
+                .blockLast();
+
+        assertThat(processResult.getStdoutLines(), is(Arrays.asList("inner")));
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldCancelExecutionOnTimeout() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_LINUX);
+
+        File pidFile = new File(Files.createTempDir(), "pid");
+        String script = String.format("echo $$ > %s; exec sleep 30", pidFile.getAbsolutePath());
+
+        try {
+            this.sut.execute(Arrays.asList("-c", script))
+                    .timeout(Duration.ofMillis(500L))
+                    .blockLast();
+            Assert.fail("Should have thrown timeout exception");
+        } catch (Exception e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+
+        String pid = Files.asCharSource(pidFile, Charsets.UTF_8).read().trim();
+        File procEntry = new File("/proc/" + pid);
+        while (procEntry.exists()) {
+            Thread.sleep(10L);
+        }
+
+        ProcessResult processResult = this.sut.execute(Arrays.asList("-c", "echo out"))
+                .blockLast();
+
+        assertThat(processResult.getStdoutLines(), is(Arrays.asList("out")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldFailExecutionsAfterClose() {
+        this.sut.close();
+
+        this.sut.execute(Arrays.asList("-c", "echo out")).blockLast();
+    }
+}
@@ -0,0 +1,69 @@
+package org.amv.highmobility.cryptotool;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class SpawnHelperTest {
+
+    private DataOutputStream requests;
+    private DataInputStream responses;
+    private SpawnHelper sut;
+    private Thread helperThread;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        PipedInputStream requestsIn = new PipedInputStream();
+        this.requests = new DataOutputStream(new PipedOutputStream(requestsIn));
+
+        PipedOutputStream responsesOut = new PipedOutputStream();
+        this.responses = new DataInputStream(new PipedInputStream(responsesOut, 64 * 1024));
+
+        this.sut = new SpawnHelper(new DataOutputStream(responsesOut));
+        this.helperThread = new Thread(() -> {
+            try {
+                sut.run(new DataInputStream(requestsIn));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.helperThread.start();
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldIgnoreCancelRequestsOfFinishedExecutions() throws Exception {
+        for (int id = 0; id < 10; id++) {
+            requests.writeByte(SpawnHelper.EXECUTE_REQUEST);
+            requests.writeInt(id);
+            SpawnHelper.writeStrings(requests, Arrays.asList("/bin/sh", "-c", "echo " + id));
+            requests.flush();
+
+            assertThat(responses.readByte(), is(SpawnHelper.RESULT_RESPONSE));
+            assertThat(responses.readInt(), is(id));
+            assertThat(responses.readInt(), is(0));
+            assertThat(SpawnHelper.readStrings(responses), is(Arrays.asList(String.valueOf(id))));
+            SpawnHelper.readStrings(responses);
+
+            requests.writeByte(SpawnHelper.CANCEL_REQUEST);
+            requests.writeInt(id);
+            requests.flush();
+        }
+
+        requests.close();
+        helperThread.join();
+
+        assertThat(sut.getRequestCount(), is(0));
+    }
+}
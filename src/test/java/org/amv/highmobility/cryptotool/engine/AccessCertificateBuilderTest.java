@@ -0,0 +1,139 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+import org.amv.highmobility.cryptotool.CryptotoolOptionsImpl;
+import org.amv.highmobility.cryptotool.CryptotoolUtils;
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.amv.highmobility.cryptotool.PermissionsImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(JUnitParamsRunner.class)
+public class AccessCertificateBuilderTest {
+    private static final String PERMISSIONS = PermissionsImpl.builder()
+            .diagnosticsRead(true)
+            .doorLocksRead(true)
+            .doorLocksWrite(true)
+            .keyfobPositionRead(true)
+            .capabilitiesRead(true)
+            .vehicleStatusRead(true)
+            .chargeRead(true)
+            .build()
+            .getPermissions();
+
+    private AccessCertificateEngine sut;
+
+    @Before
+    public void setUp() {
+        this.sut = new AccessCertificateBuilder();
+    }
+
+    @Test
+    public void itShouldCreateAccessCertificateV0() {
+        String providingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingPublicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = startDate.plusYears(1);
+
+        Cryptotool.AccessCertificate accessCertificate = this.sut.createAccessCertificate(0, null,
+                providingSerial, gainingSerial, gainingPublicKey, startDate, endDate, PERMISSIONS);
+
+        assertThat(accessCertificate, is(notNullValue()));
+        assertThat(accessCertificate.getValidityStartDate(), is(startDate));
+        assertThat(accessCertificate.getValidityEndDate(), is(endDate));
+
+        String expectedAccessCertificate = (gainingSerial + gainingPublicKey + providingSerial
+                + CryptotoolUtils.encodeAsHex(startDate)
+                + CryptotoolUtils.encodeAsHex(endDate)
+                + "07" + PERMISSIONS).toUpperCase();
+        assertThat(accessCertificate.getAccessCertificate(), is(expectedAccessCertificate));
+    }
+
+    @Test
+    public void itShouldCreateAccessCertificateV1() {
+        String issuer = SecureRandomUtils.generateRandomIssuerInHex();
+        String providingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingPublicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = startDate.plusYears(1);
+
+        Cryptotool.AccessCertificate accessCertificate = this.sut.createAccessCertificate(1, issuer,
+                providingSerial, gainingSerial, gainingPublicKey, startDate, endDate, PERMISSIONS);
+
+        assertThat(accessCertificate, is(notNullValue()));
+        assertThat(accessCertificate.getValidityStartDate(), is(startDate));
+        assertThat(accessCertificate.getValidityEndDate(), is(endDate));
+
+        String expectedAccessCertificate = ("01" + issuer + providingSerial + gainingSerial + gainingPublicKey
+                + CryptotoolUtils.encodeAsHex(startDate)
+                + CryptotoolUtils.encodeAsHex(endDate)
+                + "07" + PERMISSIONS).toUpperCase();
+        assertThat(accessCertificate.getAccessCertificate(), is(expectedAccessCertificate));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldFailCreatingAccessCertificateWithOverlongPermissions() {
+        String providingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingPublicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = startDate.plusYears(1);
+        String permissions = SecureRandomUtils.generateRandomHexString(17);
+
+        this.sut.createAccessCertificate(0, null, providingSerial, gainingSerial, gainingPublicKey,
+                startDate, endDate, permissions);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itShouldFailCreatingAccessCertificateV1WithoutIssuer() {
+        String providingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingSerial = SecureRandomUtils.generateRandomSerial();
+        String gainingPublicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+        LocalDateTime startDate = LocalDateTime.now();
+        LocalDateTime endDate = startDate.plusYears(1);
+
+        this.sut.createAccessCertificate(1, null, providingSerial, gainingSerial, gainingPublicKey,
+                startDate, endDate, PERMISSIONS);
+    }
+
+    @Test
+    @Parameters({"0", "1"})
+    public void itShouldCreateAccessCertificateIdenticalToBinary(int version) throws Exception {
+        try (SharedBinaryExecutor binaryExecutor = BinaryExecutorRegistry.getDefault().acquire()) {
+            Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(binaryExecutor)
+                    .build());
+
+            String issuer = SecureRandomUtils.generateRandomIssuerInHex();
+            String providingSerial = SecureRandomUtils.generateRandomSerial();
+            String gainingSerial = SecureRandomUtils.generateRandomSerial();
+            String gainingPublicKey = cryptotool.generateKeys().block().getPublicKey();
+            LocalDateTime startDate = LocalDateTime.now();
+            LocalDateTime endDate = startDate.plusYears(1);
+
+            Cryptotool.AccessCertificate expectedAccessCertificate = cryptotool
+                    .createAccessCertificate(version, issuer, providingSerial, gainingSerial, gainingPublicKey,
+                            startDate, endDate, PERMISSIONS)
+                    .block();
+
+            Cryptotool.AccessCertificate accessCertificate = this.sut.createAccessCertificate(version, issuer,
+                    providingSerial, gainingSerial, gainingPublicKey, startDate, endDate, PERMISSIONS);
+
+            assertThat(accessCertificate.getAccessCertificate(), is(expectedAccessCertificate.getAccessCertificate()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+import org.amv.highmobility.cryptotool.CryptotoolOptionsImpl;
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(JUnitParamsRunner.class)
+public class DeviceCertificateBuilderTest {
+
+    private DeviceCertificateEngine sut;
+
+    @Before
+    public void setUp() {
+        this.sut = new DeviceCertificateBuilder();
+    }
+
+    @Test
+    public void itShouldCreateDeviceCertificate() {
+        String issuer = SecureRandomUtils.generateRandomIssuerInHex();
+        String appId = SecureRandomUtils.generateRandomAppId();
+        String serial = SecureRandomUtils.generateRandomSerial();
+        String publicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+
+        Cryptotool.DeviceCertificate deviceCertificate = this.sut.createDeviceCertificate(issuer, appId,
+                serial, publicKey);
+
+        assertThat(deviceCertificate, is(notNullValue()));
+
+        String expectedDeviceCertificate = (issuer + appId + serial + publicKey).toUpperCase();
+        assertThat(deviceCertificate.getDeviceCertificate(), is(expectedDeviceCertificate));
+    }
+
+    @Test
+    public void itShouldReuseBufferForSubsequentCertificates() {
+        String publicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+
+        for (int i = 0; i < 10; i++) {
+            String issuer = SecureRandomUtils.generateRandomIssuerInHex();
+            String appId = SecureRandomUtils.generateRandomAppId();
+            String serial = SecureRandomUtils.generateRandomSerial();
+
+            Cryptotool.DeviceCertificate deviceCertificate = this.sut.createDeviceCertificate(issuer, appId,
+                    serial, publicKey);
+
+            String expectedDeviceCertificate = (issuer + appId + serial + publicKey).toUpperCase();
+            assertThat(deviceCertificate.getDeviceCertificate(), is(expectedDeviceCertificate));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @Parameters({"1", "8", "10"})
+    public void itShouldFailCreatingDeviceCertificateWithInvalidSerialLength(int byteCount) {
+        String issuer = SecureRandomUtils.generateRandomIssuerInHex();
+        String appId = SecureRandomUtils.generateRandomAppId();
+        String serial = SecureRandomUtils.generateRandomHexString(byteCount);
+        String publicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+
+        this.sut.createDeviceCertificate(issuer, appId, serial, publicKey);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldFailCreatingDeviceCertificateWithNonHexIssuer() {
+        String appId = SecureRandomUtils.generateRandomAppId();
+        String serial = SecureRandomUtils.generateRandomSerial();
+        String publicKey = new JcaKeysEngine().generateKeys().getPublicKey();
+
+        this.sut.createDeviceCertificate("XXXXXXXX", appId, serial, publicKey);
+    }
+
+    @Test
+    @Parameters({"1", "2", "3"})
+    public void itShouldCreateDeviceCertificateIdenticalToBinary(int index) throws Exception {
+        try (SharedBinaryExecutor binaryExecutor = BinaryExecutorRegistry.getDefault().acquire()) {
+            Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(binaryExecutor)
+                    .build());
+
+            String issuer = SecureRandomUtils.generateRandomIssuerInHex();
+            String appId = SecureRandomUtils.generateRandomAppId();
+            String serial = SecureRandomUtils.generateRandomSerial();
+            String publicKey = cryptotool.generateKeys().block().getPublicKey();
+
+            Cryptotool.DeviceCertificate expectedDeviceCertificate = cryptotool
+                    .createDeviceCertificate(issuer, appId, serial, publicKey)
+                    .block();
+
+            Cryptotool.DeviceCertificate deviceCertificate = this.sut.createDeviceCertificate(issuer, appId,
+                    serial, publicKey);
+
+            assertThat(deviceCertificate.getDeviceCertificate(), is(expectedDeviceCertificate.getDeviceCertificate()));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+import org.amv.highmobility.cryptotool.CryptotoolOptionsImpl;
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(JUnitParamsRunner.class)
+public class JcaHmacEngineTest {
+
+    private HmacEngine sut;
+
+    @Before
+    public void setUp() {
+        this.sut = new JcaHmacEngine();
+    }
+
+    @Test
+    @Parameters({"0", "1", "42", "64", "65", "256", "1024"})
+    public void itShouldGenerateHmac(int byteCount) throws Exception {
+        String key = SecureRandomUtils.generateRandomHexString(32);
+        String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+
+        Cryptotool.Hmac hmac = this.sut.generateHmac(anyMessage, key);
+
+        assertThat(hmac, is(notNullValue()));
+        assertThat(hmac.getHmac().length(), is(64));
+        assertThat(hmac.getHmac(), is(hmac.getHmac().toUpperCase()));
+
+        byte[] paddedMessage = Arrays.copyOf(Hex.decodeHex(anyMessage.toCharArray()),
+                (byteCount + 63) / 64 * 64);
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Hex.decodeHex(key.toCharArray()), "HmacSHA256"));
+        String expectedHmac = Hex.encodeHexString(mac.doFinal(paddedMessage)).toUpperCase();
+
+        assertThat(hmac.getHmac(), is(expectedHmac));
+    }
+
+    @Test
+    @Parameters({"0", "1", "42", "256"})
+    public void itShouldVerifyHmac(int byteCount) {
+        String key = SecureRandomUtils.generateRandomHexString(32);
+        String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+
+        Cryptotool.Hmac hmac = this.sut.generateHmac(anyMessage, key);
+
+        assertThat(this.sut.verifyHmac(anyMessage, key, hmac.getHmac()), is(Cryptotool.Validity.VALID));
+        assertThat(this.sut.verifyHmac(anyMessage, key, hmac.getHmac().toLowerCase()),
+                is(Cryptotool.Validity.VALID));
+    }
+
+    @Test
+    @Parameters({"1", "42", "255"})
+    public void itShouldFailVerifyingHmacWithMismatchingMessage(int byteCount) {
+        String key = SecureRandomUtils.generateRandomHexString(32);
+        String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+
+        Cryptotool.Hmac hmac = this.sut.generateHmac(anyMessage, key);
+
+        String mismatchingMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+        Cryptotool.Validity validity = this.sut.verifyHmac(mismatchingMessage, key, hmac.getHmac());
+
+        assertThat(validity, is(Cryptotool.Validity.INVALID));
+    }
+
+    @Test
+    public void itShouldFailVerifyingHmacWithMismatchingKey() {
+        String key = SecureRandomUtils.generateRandomHexString(32);
+        String differentKey = SecureRandomUtils.generateRandomHexString(32);
+        String anyMessage = SecureRandomUtils.generateRandomHexString(42);
+
+        Cryptotool.Hmac hmac = this.sut.generateHmac(anyMessage, key);
+
+        Cryptotool.Validity validity = this.sut.verifyHmac(anyMessage, differentKey, hmac.getHmac());
+
+        assertThat(validity, is(Cryptotool.Validity.INVALID));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldFailGeneratingHmacWithInvalidKeyLength() {
+        String key = SecureRandomUtils.generateRandomHexString(16);
+        String anyMessage = SecureRandomUtils.generateRandomHexString(42);
+
+        this.sut.generateHmac(anyMessage, key);
+    }
+
+    @Test
+    @Parameters({"1", "42", "255"})
+    public void itShouldGenerateHmacIdenticalToBinary(int byteCount) throws Exception {
+        try (SharedBinaryExecutor binaryExecutor = BinaryExecutorRegistry.getDefault().acquire()) {
+            Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(binaryExecutor)
+                    .build());
+
+            String key = SecureRandomUtils.generateRandomHexString(32);
+            String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+
+            Cryptotool.Hmac expectedHmac = cryptotool.generateHmac(anyMessage, key)
+                    .block();
+
+            Cryptotool.Hmac hmac = this.sut.generateHmac(anyMessage, key);
+
+            assertThat(hmac.getHmac(), is(expectedHmac.getHmac()));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+import org.amv.highmobility.cryptotool.CryptotoolOptionsImpl;
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+public class JcaKeysEngineTest {
+
+    private KeysEngine sut;
+
+    @Before
+    public void setUp() {
+        this.sut = new JcaKeysEngine();
+    }
+
+    @Test
+    public void itShouldGenerateKeysInFormatOfBinary() {
+        for (int i = 0; i < 100; i++) {
+            Cryptotool.Keys keys = this.sut.generateKeys();
+
+            assertThat(keys, is(notNullValue()));
+            assertThat(keys.getPrivateKey().length(), is(64));
+            assertThat(keys.getPublicKey().length(), is(128));
+            assertThat(keys.getPrivateKey(), is(keys.getPrivateKey().toUpperCase()));
+            assertThat(keys.getPublicKey(), is(keys.getPublicKey().toUpperCase()));
+        }
+    }
+
+    @Test
+    public void itShouldGenerateDifferentKeys() {
+        Cryptotool.Keys keys = this.sut.generateKeys();
+        Cryptotool.Keys otherKeys = this.sut.generateKeys();
+
+        assertThat(keys.getPrivateKey(), is(not(otherKeys.getPrivateKey())));
+        assertThat(keys.getPublicKey(), is(not(otherKeys.getPublicKey())));
+    }
+
+    @Test
+    public void itShouldGenerateMatchingKeyPair() {
+        SignatureEngine signatureEngine = new JcaSignatureEngine();
+        Cryptotool.Keys keys = this.sut.generateKeys();
+
+        String anyMessage = SecureRandomUtils.generateRandomHexString(42);
+        Cryptotool.Signature signature = signatureEngine.sign(anyMessage, keys.getPrivateKey());
+
+        Cryptotool.Validity validity = signatureEngine.verify(anyMessage, signature.getSignature(),
+                keys.getPublicKey());
+
+        assertThat(validity, is(Cryptotool.Validity.VALID));
+    }
+
+    @Test
+    public void itShouldGenerateKeysUsableByBinary() throws Exception {
+        try (SharedBinaryExecutor binaryExecutor = BinaryExecutorRegistry.getDefault().acquire()) {
+            Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(binaryExecutor)
+                    .build());
+            Cryptotool.Keys keys = this.sut.generateKeys();
+
+            String anyMessage = SecureRandomUtils.generateRandomHexString(42);
+            Cryptotool.Signature signature = cryptotool.generateSignature(anyMessage, keys.getPrivateKey())
+                    .block();
+
+            Cryptotool.Validity validity = cryptotool.verifySignature(anyMessage, signature.getSignature(),
+                    keys.getPublicKey())
+                    .block();
+
+            assertThat(validity, is(Cryptotool.Validity.VALID));
+        }
+    }
+}
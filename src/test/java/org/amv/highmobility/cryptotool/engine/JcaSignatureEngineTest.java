@@ -0,0 +1,220 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry;
+import org.amv.highmobility.cryptotool.BinaryExecutorRegistry.SharedBinaryExecutor;
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.amv.highmobility.cryptotool.CryptotoolImpl;
+import org.amv.highmobility.cryptotool.CryptotoolOptionsImpl;
+import org.amv.highmobility.cryptotool.CryptotoolUtils.SecureRandomUtils;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(JUnitParamsRunner.class)
+public class JcaSignatureEngineTest {
+
+    private SignatureEngine sut;
+
+    @Before
+    public void setUp() {
+        this.sut = new JcaSignatureEngine();
+    }
+
+    @Test
+    @Parameters({"0", "1", "42", "64", "65", "256"})
+    public void itShouldGenerateVerifiableSignatures(int byteCount) throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        String privateKey = toRawPrivateKey((ECPrivateKey) keyPair.getPrivate());
+
+        String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+        Cryptotool.Signature signature = this.sut.sign(anyMessage, privateKey);
+
+        assertThat(signature, is(notNullValue()));
+        assertThat(signature.getSignature().length(), is(128));
+        assertThat(signature.getSignature(), is(signature.getSignature().toUpperCase()));
+
+        byte[] paddedMessage = Arrays.copyOf(Hex.decodeHex(anyMessage.toCharArray()),
+                (byteCount + 63) / 64 * 64);
+
+        Signature verifier = Signature.getInstance("SHA256withECDSA");
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(paddedMessage);
+
+        byte[] derSignature = P256.toDerSignature(Hex.decodeHex(signature.getSignature().toCharArray()));
+        assertThat(verifier.verify(derSignature), is(true));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldFailGeneratingSignatureForOverlongMessage() throws Exception {
+        String privateKey = toRawPrivateKey((ECPrivateKey) generateKeyPair().getPrivate());
+
+        String anyMessage = SecureRandomUtils.generateRandomHexString(512);
+        this.sut.sign(anyMessage, privateKey);
+    }
+
+    @Test
+    @Parameters({"0", "1", "42", "256"})
+    public void itShouldVerifySignature(int byteCount) throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        String privateKey = toRawPrivateKey((ECPrivateKey) keyPair.getPrivate());
+        String publicKey = toRawPublicKey((ECPublicKey) keyPair.getPublic());
+
+        String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+        Cryptotool.Signature signature = this.sut.sign(anyMessage, privateKey);
+
+        Cryptotool.Validity validity = this.sut.verify(anyMessage, signature.getSignature(), publicKey);
+
+        assertThat(validity, is(Cryptotool.Validity.VALID));
+    }
+
+    @Test
+    @Parameters({"1", "42", "255"})
+    public void itShouldFailVerifyingSignaturesWithMismatchingMessage(int byteCount) throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        String privateKey = toRawPrivateKey((ECPrivateKey) keyPair.getPrivate());
+        String publicKey = toRawPublicKey((ECPublicKey) keyPair.getPublic());
+
+        String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+        Cryptotool.Signature signature = this.sut.sign(anyMessage, privateKey);
+
+        String mismatchingMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+        Cryptotool.Validity validity = this.sut.verify(mismatchingMessage, signature.getSignature(), publicKey);
+
+        assertThat(validity, is(Cryptotool.Validity.INVALID));
+    }
+
+    @Test
+    public void itShouldFailVerifyingSignaturesWithMismatchingKey() throws Exception {
+        String privateKey = toRawPrivateKey((ECPrivateKey) generateKeyPair().getPrivate());
+        String differentPublicKey = toRawPublicKey((ECPublicKey) generateKeyPair().getPublic());
+
+        String anyMessage = SecureRandomUtils.generateRandomHexString(42);
+        Cryptotool.Signature signature = this.sut.sign(anyMessage, privateKey);
+
+        Cryptotool.Validity validity = this.sut.verify(anyMessage, signature.getSignature(), differentPublicKey);
+
+        assertThat(validity, is(Cryptotool.Validity.INVALID));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShouldFailVerifyingSignatureWithOverlongMessage() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        String publicKey = toRawPublicKey((ECPublicKey) keyPair.getPublic());
+
+        String anyMessage = SecureRandomUtils.generateRandomHexString(512);
+        String anySignature = SecureRandomUtils.generateRandomHexString(64);
+        this.sut.verify(anyMessage, anySignature, publicKey);
+    }
+
+    @Test
+    public void itShouldVerifyAllSignaturesInOrderOfRequests() throws Exception {
+        List<KeyPair> keyPairs = Arrays.asList(generateKeyPair(), generateKeyPair(), generateKeyPair());
+
+        List<Cryptotool.VerifyRequest> requests = new ArrayList<>();
+        List<Cryptotool.Validity> expectedValidities = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            KeyPair keyPair = keyPairs.get(i % keyPairs.size());
+            String privateKey = toRawPrivateKey((ECPrivateKey) keyPair.getPrivate());
+            String publicKey = toRawPublicKey((ECPublicKey) keyPair.getPublic());
+
+            String anyMessage = SecureRandomUtils.generateRandomHexString(42);
+            Cryptotool.Signature signature = this.sut.sign(anyMessage, privateKey);
+
+            boolean valid = i % 4 != 0;
+            String message = valid ? anyMessage : SecureRandomUtils.generateRandomHexString(42);
+
+            requests.add(CryptotoolImpl.VerifyRequestImpl.builder()
+                    .message(message)
+                    .signature(signature.getSignature())
+                    .publicKey(publicKey)
+                    .build());
+            expectedValidities.add(valid ? Cryptotool.Validity.VALID : Cryptotool.Validity.INVALID);
+        }
+
+        List<Cryptotool.Validity> validities = this.sut.verifyAll(requests);
+
+        assertThat(validities, is(expectedValidities));
+    }
+
+    @Test
+    @Parameters({"1", "42", "255"})
+    public void itShouldVerifySignaturesGeneratedByBinary(int byteCount) throws Exception {
+        try (SharedBinaryExecutor binaryExecutor = BinaryExecutorRegistry.getDefault().acquire()) {
+            Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(binaryExecutor)
+                    .build());
+            Cryptotool.Keys keys = cryptotool.generateKeys()
+                    .block();
+
+            String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+            Cryptotool.Signature signature = cryptotool.generateSignature(anyMessage, keys.getPrivateKey())
+                    .block();
+
+            Cryptotool.Validity validity = this.sut.verify(anyMessage, signature.getSignature(), keys.getPublicKey());
+
+            assertThat(validity, is(Cryptotool.Validity.VALID));
+        }
+    }
+
+    @Test
+    @Parameters({"1", "42", "255"})
+    public void itShouldGenerateSignaturesVerifiableByBinary(int byteCount) throws Exception {
+        try (SharedBinaryExecutor binaryExecutor = BinaryExecutorRegistry.getDefault().acquire()) {
+            Cryptotool cryptotool = new CryptotoolImpl(CryptotoolOptionsImpl.builder()
+                    .binaryExecutor(binaryExecutor)
+                    .build());
+            Cryptotool.Keys keys = cryptotool.generateKeys()
+                    .block();
+
+            String anyMessage = SecureRandomUtils.generateRandomHexString(byteCount);
+            Cryptotool.Signature signature = this.sut.sign(anyMessage, keys.getPrivateKey());
+
+            Cryptotool.Validity validity = cryptotool.verifySignature(anyMessage, signature.getSignature(),
+                    keys.getPublicKey())
+                    .block();
+
+            assertThat(validity, is(Cryptotool.Validity.VALID));
+        }
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec(P256.CURVE_NAME));
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private static String toRawPrivateKey(ECPrivateKey privateKey) {
+        byte[] raw = new byte[32];
+        copyUnsigned(privateKey.getS().toByteArray(), raw, 0);
+        return Hex.encodeHexString(raw);
+    }
+
+    private static String toRawPublicKey(ECPublicKey publicKey) {
+        byte[] raw = new byte[64];
+        copyUnsigned(publicKey.getW().getAffineX().toByteArray(), raw, 0);
+        copyUnsigned(publicKey.getW().getAffineY().toByteArray(), raw, 32);
+        return Hex.encodeHexString(raw);
+    }
+
+    private static void copyUnsigned(byte[] bytes, byte[] dest, int offset) {
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, dest, offset + 32 - length, length);
+    }
+}
@@ -0,0 +1,98 @@
+package org.amv.highmobility.cryptotool.engine;
+
+import org.amv.highmobility.cryptotool.Cryptotool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+public class KeyPoolTest {
+
+    private CountingKeysEngine keysEngine;
+
+    private KeyPool sut;
+
+    @Before
+    public void setUp() {
+        this.keysEngine = new CountingKeysEngine(new JcaKeysEngine());
+        this.sut = KeyPool.builder()
+                .keysEngine(keysEngine)
+                .size(10)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        this.sut.close();
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldFillPoolInBackground() throws Exception {
+        awaitFilledPool();
+
+        assertThat(this.keysEngine.getCount(), is(10));
+    }
+
+    @Test(timeout = 10_000L)
+    public void itShouldRefillPoolAfterKeysAreTaken() throws Exception {
+        awaitFilledPool();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(this.sut.generateKeys(), is(notNullValue()));
+        }
+
+        awaitFilledPool();
+
+        assertThat(this.keysEngine.getCount(), is(15));
+    }
+
+    @Test
+    public void itShouldNeverHandOutKeysTwice() {
+        Set<String> privateKeys = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            privateKeys.add(this.sut.generateKeys().getPrivateKey());
+        }
+
+        assertThat(privateKeys.size(), is(50));
+    }
+
+    @Test
+    public void itShouldGenerateKeysWhenClosed() {
+        this.sut.close();
+
+        assertThat(this.sut.generateKeys(), is(notNullValue()));
+        assertThat(this.sut.getAvailableKeysCount(), is(0));
+    }
+
+    private void awaitFilledPool() throws InterruptedException {
+        while (this.sut.getAvailableKeysCount() < this.sut.getSize()) {
+            Thread.sleep(1L);
+        }
+    }
+
+    private static class CountingKeysEngine implements KeysEngine {
+        private final KeysEngine delegate;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private CountingKeysEngine(KeysEngine delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Cryptotool.Keys generateKeys() {
+            count.incrementAndGet();
+            return delegate.generateKeys();
+        }
+
+        int getCount() {
+            return count.get();
+        }
+    }
+}